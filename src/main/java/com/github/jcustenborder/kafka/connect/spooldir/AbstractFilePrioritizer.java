@@ -0,0 +1,187 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Ordering;
+import org.apache.kafka.common.config.ConfigException;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides the order in which queued files are read. The priority of a file is worked out once when
+ * it is queued and stored in an {@link Entry}, so the queue does not stat the file or match it
+ * again on every comparison. Files with the same priority are ordered by files.sort.attributes.
+ */
+abstract class AbstractFilePrioritizer implements Comparator<AbstractFilePrioritizer.Entry> {
+  final FileComparator fileComparator;
+
+  protected AbstractFilePrioritizer(FileComparator fileComparator) {
+    this.fileComparator = fileComparator;
+  }
+
+  public static AbstractFilePrioritizer create(AbstractSourceConnectorConfig config) {
+    final FileComparator fileComparator = new FileComparator(config.fileSortAttributes);
+    AbstractFilePrioritizer result;
+
+    switch (config.filePriority) {
+      case FileAttributes:
+        result = new FileAttributes(fileComparator);
+        break;
+      case FileNamePattern:
+        result = new FileNamePattern(fileComparator, config.filePriorityPattern);
+        break;
+      case SubDirectory:
+        result = new SubDirectory(fileComparator, config.inputPath, config.filePrioritySubDirectories);
+        break;
+      default:
+        throw new ConfigException(
+            AbstractSourceConnectorConfig.FILE_PRIORITY_CONF,
+            config.filePriority.toString(),
+            "Unsupported value"
+        );
+    }
+
+    return result;
+  }
+
+  static class Entry {
+    final File file;
+    final String name;
+    final long length;
+    final long lastModified;
+    /**
+     * Lower ranks are read first.
+     */
+    final int rank;
+    /**
+     * Compared within a rank. Entries without a key are read last.
+     */
+    final String key;
+    /**
+     * Sub-directory the file is shared under. Set by the queue.
+     */
+    String tenant;
+    /**
+     * Time the file was queued. Set by the queue.
+     */
+    long enqueued;
+    boolean removed;
+
+    Entry(File file, int rank, String key) {
+      this.file = file;
+      this.name = file.getName();
+      this.length = file.length();
+      this.lastModified = file.lastModified();
+      this.rank = rank;
+      this.key = key;
+    }
+  }
+
+  /**
+   * Reads the attributes of a file and works out its priority.
+   *
+   * @param file file to queue.
+   * @return entry for the queue.
+   */
+  abstract Entry entry(File file);
+
+  @Override
+  public int compare(Entry e1, Entry e2) {
+    final int result = ComparisonChain.start()
+        .compare(e1.rank, e2.rank)
+        .compare(e1.key, e2.key, Ordering.natural().nullsLast())
+        .result();
+    if (0 != result) {
+      return result;
+    }
+    return this.fileComparator.compare(e1.name, e1.length, e1.lastModified, e2.name, e2.length, e2.lastModified);
+  }
+
+  /**
+   * Orders files by files.sort.attributes only.
+   */
+  static class FileAttributes extends AbstractFilePrioritizer {
+    FileAttributes(FileComparator fileComparator) {
+      super(fileComparator);
+    }
+
+    @Override
+    Entry entry(File file) {
+      return new Entry(file, 0, null);
+    }
+  }
+
+  /**
+   * Orders files by the text captured by the first group of a regular expression, for example a
+   * date in the file name. Files that do not match are read last.
+   */
+  static class FileNamePattern extends AbstractFilePrioritizer {
+    final Pattern pattern;
+
+    FileNamePattern(FileComparator fileComparator, Pattern pattern) {
+      super(fileComparator);
+      this.pattern = pattern;
+    }
+
+    @Override
+    Entry entry(File file) {
+      final Matcher matcher = this.pattern.matcher(file.getName());
+      if (!matcher.find()) {
+        return new Entry(file, 1, null);
+      }
+      final String key = matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+      return new Entry(file, 0, key);
+    }
+  }
+
+  /**
+   * Orders files by the first sub-directory of the input path, in a configured list, that holds
+   * them. Files in other directories are read last.
+   */
+  static class SubDirectory extends AbstractFilePrioritizer {
+    final Path inputPath;
+    final List<Path> subDirectories;
+
+    SubDirectory(FileComparator fileComparator, File inputPath, List<String> subDirectories) {
+      super(fileComparator);
+      this.inputPath = inputPath.toPath();
+      this.subDirectories = subDirectories.stream()
+          .map(s -> Paths.get(s))
+          .collect(Collectors.toList());
+    }
+
+    @Override
+    Entry entry(File file) {
+      final Path relative = this.inputPath.relativize(file.toPath().getParent());
+      int rank = this.subDirectories.size();
+      for (int i = 0; i < this.subDirectories.size(); i++) {
+        if (relative.startsWith(this.subDirectories.get(i))) {
+          rank = i;
+          break;
+        }
+      }
+      return new Entry(file, rank, null);
+    }
+  }
+}
@@ -17,9 +17,11 @@ package com.github.jcustenborder.kafka.connect.spooldir;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
+import com.google.common.base.Charsets;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteStreams;
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
@@ -29,6 +31,7 @@ import org.apache.kafka.connect.data.SchemaBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -171,22 +174,58 @@ public abstract class AbstractSchemaGenerator<CONFIG extends AbstractSpoolDirSou
 
   protected abstract Map<String, Schema.Type> determineFieldTypes(InputStream inputStream) throws IOException;
 
-  void addField(SchemaBuilder builder, String name, Schema.Type schemaType) {
-    log.trace("addField() - name = {} schemaType = {}", name, schemaType);
-    builder.field(
-        name,
-        SchemaBuilder.type(schemaType).optional().build()
-    );
+  /**
+   * Method is used to determine the schema of each field in the file. The default implementation
+   * makes every type returned by {@link #determineFieldTypes(InputStream)} optional.
+   *
+   * @param inputStream stream to read the file from.
+   * @return field name to schema, in the order the fields should be added.
+   * @throws IOException thrown if the file cannot be read.
+   */
+  protected Map<String, Schema> determineFieldSchemas(InputStream inputStream) throws IOException {
+    final Map<String, Schema.Type> fieldTypes = determineFieldTypes(inputStream);
+    final Map<String, Schema> result = new LinkedHashMap<>();
+    for (Map.Entry<String, Schema.Type> kvp : fieldTypes.entrySet()) {
+      result.put(kvp.getKey(), SchemaBuilder.type(kvp.getValue()).optional().build());
+    }
+    return result;
+  }
+
+  /**
+   * Method is used to read the part of a file that describes its layout. Files with the same header
+   * are expected to generate the same schema. The default implementation returns the first line.
+   *
+   * @param inputStream stream to read the file from.
+   * @return header of the file.
+   * @throws IOException thrown if the file cannot be read.
+   */
+  protected String header(InputStream inputStream) throws IOException {
+    final byte[] firstLine = ByteStreams.toByteArray(new LineBoundedInputStream(inputStream, 0));
+    return new String(firstLine, Charsets.ISO_8859_1);
+  }
+
+  public String header(File inputFile) throws IOException {
+    try (InputStream inputStream = new BufferedInputStream(new FileInputStream(inputFile))) {
+      return header(inputStream);
+    }
+  }
+
+  void addField(SchemaBuilder builder, String name, Schema schema) {
+    log.trace("addField() - name = {} schema = {}", name, schema);
+    builder.field(name, schema);
   }
 
   public Map.Entry<Schema, Schema> generate(File inputFile, List<String> keyFields) throws IOException {
     log.trace("generate() - inputFile = '{}', keyFields = {}", inputFile, keyFields);
 
-    final Map<String, Schema.Type> fieldTypes;
+    final Map<String, Schema> fieldSchemas;
 
     log.info("Determining fields from {}", inputFile);
-    try (InputStream inputStream = new FileInputStream(inputFile)) {
-      fieldTypes = determineFieldTypes(inputStream);
+    try (InputStream inputStream = new LineBoundedInputStream(
+        new BufferedInputStream(new FileInputStream(inputFile)),
+        this.config.schemaGenerationProbeMaxBytes
+    )) {
+      fieldSchemas = determineFieldSchemas(inputStream);
     }
 
     log.trace("generate() - Building key schema.");
@@ -195,9 +234,9 @@ public abstract class AbstractSchemaGenerator<CONFIG extends AbstractSpoolDirSou
 
     for (String keyFieldName : keyFields) {
       log.trace("generate() - Adding keyFieldName field '{}'", keyFieldName);
-      if (fieldTypes.containsKey(keyFieldName)) {
-        Schema.Type schemaType = fieldTypes.get(keyFieldName);
-        addField(keySchemaBuilder, keyFieldName, schemaType);
+      if (fieldSchemas.containsKey(keyFieldName)) {
+        Schema schema = fieldSchemas.get(keyFieldName);
+        addField(keySchemaBuilder, keyFieldName, schema);
       } else {
         log.warn("Key field '{}' is not in the data.", keyFieldName);
       }
@@ -207,7 +246,7 @@ public abstract class AbstractSchemaGenerator<CONFIG extends AbstractSpoolDirSou
     SchemaBuilder valueSchemaBuilder = SchemaBuilder.struct()
         .name(this.config.schemaGenerationValueName);
 
-    for (Map.Entry<String, Schema.Type> kvp : fieldTypes.entrySet()) {
+    for (Map.Entry<String, Schema> kvp : fieldSchemas.entrySet()) {
       addField(valueSchemaBuilder, kvp.getKey(), kvp.getValue());
     }
 
@@ -22,12 +22,16 @@ import com.github.jcustenborder.kafka.connect.utils.config.ValidPattern;
 import com.github.jcustenborder.kafka.connect.utils.config.recommenders.Recommenders;
 import com.github.jcustenborder.kafka.connect.utils.config.validators.Validators;
 import com.github.jcustenborder.kafka.connect.utils.config.validators.filesystem.ValidDirectoryWritable;
+import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
 import com.google.common.io.PatternFilenameFilter;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.connect.errors.ConnectException;
 
 import java.io.File;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
@@ -44,6 +48,19 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
   public static final boolean INPUT_PATH_WALK_RECURSIVELY_DEFAULT = false;
   static final String INPUT_PATH_WALK_RECURSIVELY_DOC = "If enabled, any sub-directories dropped under `input.path` will be recursively walked looking for files matching the configured `input.file.pattern`. After processing is complete the discovered sub directory structure (as well as files within them) will handled according to the configured `cleanup.policy` (i.e. moved or deleted etc). For each discovered file, the walked sub-directory path will be set as a header named `file.relative.path`";
 
+  public static final String INPUT_PATH_WALK_WINDOW_SIZE_CONF = "input.path.walk.window.size";
+  static final String INPUT_PATH_WALK_WINDOW_SIZE_DOC = "If `" + INPUT_PATH_WALK_RECURSIVELY + "` is enabled " +
+      "and this is larger than `0`, the input path is walked one directory at a time and files are handed to the " +
+      "task in windows of at most this many files, so processing starts before the whole tree is listed. `" +
+      FILE_SORT_ATTRIBUTES_CONF + "` is applied within each window. Directories that held no input files are only listed " +
+      "again once their modification time changes. `0` lists and sorts the whole tree before the first file is read.";
+
+  public static final String INPUT_PATH_WALK_PARALLELISM_CONF = "input.path.walk.parallelism";
+  static final String INPUT_PATH_WALK_PARALLELISM_DOC = "The number of threads used to list the sub-directories " +
+      "of `input.path` when `" + INPUT_PATH_WALK_RECURSIVELY + "` is enabled. Sub-directories are listed at the " +
+      "same time, which shortens the scan on file systems where listing a directory is slow, such as NFS. `1` " +
+      "lists the tree on the task thread. Not used when `" + INPUT_PATH_WALK_WINDOW_SIZE_CONF + "` is set.";
+
   public static final String CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH = "cleanup.policy.maintain.relative.path";
   static final boolean CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH_DEFAULT = false;
   static final String CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH_DOC = "If `" + INPUT_PATH_WALK_RECURSIVELY + "` is enabled in combination with this flag being `true`, the walked sub-directories which contained files will be retained as-is under the `input.path`. The actual files within the sub-directories will moved (with a copy of the sub-dir structure) or deleted as per the `cleanup.policy` defined, but the parent sub-directory structure will remain.";
@@ -69,6 +86,16 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
   public static final String GROUP_TIMESTAMP = "Timestamps";
   static final String BATCH_SIZE_DOC = "The number of records that should be returned with each batch.";
   static final int BATCH_SIZE_DEFAULT = 1000;
+  public static final String BATCH_ADAPTIVE_ENABLED_CONF = "batch.adaptive.enabled";
+  static final String BATCH_ADAPTIVE_ENABLED_DOC = "Flag to size each batch from the bytes read and the time taken " +
+      "per record in previous batches instead of always using `" + BATCH_SIZE_CONF + "`. The batch is kept under " +
+      "`batch.target.bytes` and `batch.max.latency.ms`, and `" + BATCH_SIZE_CONF + "` becomes the upper limit.";
+  public static final String BATCH_TARGET_BYTES_CONF = "batch.target.bytes";
+  static final String BATCH_TARGET_BYTES_DOC = "The number of bytes of the file to read for each batch when `" +
+      BATCH_ADAPTIVE_ENABLED_CONF + "` is enabled. Measured after decompression.";
+  public static final String BATCH_MAX_LATENCY_MS_CONF = "batch.max.latency.ms";
+  static final String BATCH_MAX_LATENCY_MS_DOC = "The amount of time in milliseconds to spend reading each batch " +
+      "when `" + BATCH_ADAPTIVE_ENABLED_CONF + "` is enabled.";
   static final String TOPIC_DOC = "The Kafka topic to write the data to.";
   static final String INPUT_PATH_DOC = "The directory to read files that will be processed. This directory must exist and be writable by the user running Kafka Connect.";
   static final String FINISHED_PATH_DOC = "The directory to place files that have been successfully processed. This directory must exist and be writable by the user running Kafka Connect.";
@@ -80,6 +107,29 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
   static final String PROCESSING_FILE_EXTENSION_DOC = "Before a file is processed, a flag is created in its directory to indicate the file is being handled. " +
       "The flag file has the same name as the file, but with this property appended as a suffix.";
   static final String EMPTY_POLL_WAIT_MS_DOC = "The amount of time to wait if a poll returns an empty list of records.";
+  public static final String PROCESSING_FILE_LEASE_MS_CONF = "processing.file.lease.ms";
+  static final String PROCESSING_FILE_LEASE_MS_DOC = "The amount of time in milliseconds a processing flag stays " +
+      "valid without being refreshed. The task reading a file refreshes the modification time of the flag while it " +
+      "reads, and a flag older than this is treated as left behind by a crashed worker so another task can take the " +
+      "file over. It must be longer than the time it takes to read a batch. `0` disables expiry and flags are only " +
+      "removed by the task that created them.";
+  public static final String MEMORY_BUDGET_BYTES_CONF = "memory.budget.bytes";
+  static final String MEMORY_BUDGET_BYTES_DOC = "The number of bytes all of the spooldir tasks in a worker may hold " +
+      "in batches that have not been written to Kafka. A task waits up to `" + EMPTY_POLL_WAIT_MS_CONF + "` for " +
+      "space before it reads a batch and the space is given back as the records are committed. Measured as the " +
+      "bytes read from the file. The space for a batch is estimated from the bytes per record of the previous " +
+      "batches, or `" + BATCH_TARGET_BYTES_CONF + "` before the first one, and corrected once it has been read. The " +
+      "first task started in the worker sets the size. `0` disables the limit.";
+  public static final String EMPTY_POLL_WAIT_MAX_MS_CONF = "empty.poll.wait.max.ms";
+  static final String EMPTY_POLL_WAIT_MAX_MS_DOC = "The maximum amount of time to wait if a poll returns an empty " +
+      "list of records. If this is larger than `" + EMPTY_POLL_WAIT_MS_CONF + "` the wait doubles after each empty " +
+      "poll up to this value, with random jitter, and starts over once a file is found. `0` always waits `" +
+      EMPTY_POLL_WAIT_MS_CONF + "`.";
+  public static final String INPUT_PATH_WATCH_ENABLED_CONF = "input.path.watch.enabled";
+  static final String INPUT_PATH_WATCH_ENABLED_DOC = "Flag to watch `" + INPUT_PATH_CONFIG + "` for new files " +
+      "while waiting after an empty poll. The wait ends as soon as a file is created so new files are picked up " +
+      "without waiting for the full interval. Not all file systems, such as some network file systems, report " +
+      "changes.";
   static final String TIMESTAMP_FIELD_DOC = "The field in the value schema that will contain the parsed timestamp for the record. " +
       "This field cannot be marked as optional and must be a " +
       "[Timestamp](https://kafka.apache.org/0102/javadoc/org/apache/kafka/connect/data/Schema.html)";
@@ -94,6 +144,42 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
       "`Name` is name of the file. `Length` is the length of the file preferring larger files first. `LastModified` is " +
       "the LastModified attribute of the file preferring older files first.";
 
+  public static final String FILE_PRIORITY_CONF = "files.priority";
+  static final String FILE_PRIORITY_DOC = "Decides which queued file is read next. `FileAttributes` only uses `" +
+      FILE_SORT_ATTRIBUTES_CONF + "`. `FileNamePattern` orders files by the text captured by the first group of `" +
+      "files.priority.pattern`, for example a `yyyy-MM-dd` date in the file name, and reads files that do not match " +
+      "last. `SubDirectory` reads files in the sub-directories listed in `files.priority.subdirectories` first, in " +
+      "the order listed. Files with the same priority are ordered by `" + FILE_SORT_ATTRIBUTES_CONF + "`.";
+  public static final String FILE_PRIORITY_PATTERN_CONF = "files.priority.pattern";
+  static final String FILE_PRIORITY_PATTERN_DOC = "Regular expression searched for in the file name when `" +
+      FILE_PRIORITY_CONF + "` is `FileNamePattern`. The text captured by the first group, or the whole match if " +
+      "there is no group, is compared as a string, lowest first.";
+  public static final String FILE_PRIORITY_SUBDIRECTORIES_CONF = "files.priority.subdirectories";
+  static final String FILE_PRIORITY_SUBDIRECTORIES_DOC = "Sub-directories of `input.path`, highest priority first, " +
+      "used when `" + FILE_PRIORITY_CONF + "` is `SubDirectory`. A file belongs to the first entry its directory is in " +
+      "or under.";
+  public static final String FILE_PRIORITY_MAX_WAIT_MS_CONF = "files.priority.max.wait.ms";
+  static final String FILE_PRIORITY_MAX_WAIT_MS_DOC = "The amount of time in milliseconds a queued file may " +
+      "wait behind files with a higher priority, counted from when it was first queued. Once a file has waited " +
+      "longer it is read next, longest waiting first, so files with a low priority are not held back forever. `0` " +
+      "disables the limit.";
+  public static final String FILE_FAIR_SHARE_ENABLED_CONF = "files.fair.share.enabled";
+  static final String FILE_FAIR_SHARE_ENABLED_DOC = "Flag to share the task between the top level sub-directories " +
+      "of `input.path`. Each sub-directory gets its own queue and the queues take turns, so one directory holding " +
+      "a large backlog does not hold back the others. `" + FILE_PRIORITY_CONF + "` orders the files within each " +
+      "sub-directory. Setting `" + FILE_SORT_ATTRIBUTES_CONF + "` to `LengthAsc` reads the smallest file of each " +
+      "sub-directory first.";
+  public static final String FILE_FAIR_SHARE_WEIGHTS_CONF = "files.fair.share.weights";
+  static final String FILE_FAIR_SHARE_WEIGHTS_DOC = "Weights of the sub-directories when `" +
+      FILE_FAIR_SHARE_ENABLED_CONF + "` is enabled, as `name:weight` pairs. A sub-directory with a weight of `3` " +
+      "gets three turns for each turn of a sub-directory with a weight of `1`. Sub-directories that are not " +
+      "listed have a weight of `1`.";
+  public static final String INPUT_PATH_RESCAN_INTERVAL_MS_CONF = "input.path.rescan.interval.ms";
+  static final String INPUT_PATH_RESCAN_INTERVAL_MS_DOC = "The amount of time in milliseconds after which the " +
+      "input path is scanned again even though files from the last scan are still queued. New files are added to " +
+      "the queue by priority, so urgent files do not wait for a backlog to be read. `0` only scans once the queue " +
+      "is empty.";
+
   public static final String TASK_INDEX_CONF = "task.index";
   static final String TASK_INDEX_DOC = "Internal setting to the connector used to instruct a " +
       "task on which files to select. The connector will override this setting.";
@@ -118,21 +204,55 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
   public final boolean haltOnError;
   public final long minimumFileAgeMS;
   public final int batchSize;
+  public final boolean batchAdaptiveEnabled;
+  public final long batchTargetBytes;
+  public final long batchMaxLatencyMs;
   public final String topic;
   public final long emptyPollWaitMs;
+  public final long emptyPollWaitMaxMs;
+  public final long memoryBudgetBytes;
+  public final long processingFileLeaseMs;
+  public final boolean inputPathWatchEnabled;
   public final String processingFileExtension;
   public final TimestampMode timestampMode;
   public final CleanupPolicy cleanupPolicy;
   public final PatternFilenameFilter inputFilenameFilter;
   public final List<FileAttribute> fileSortAttributes;
+  public final FilePriority filePriority;
+  public final Pattern filePriorityPattern;
+  public final List<String> filePrioritySubDirectories;
+  public final long filePriorityMaxWaitMs;
+  public final long inputPathRescanIntervalMs;
+  public final boolean fileFairShareEnabled;
+  public final Map<String, Integer> fileFairShareWeights;
   public final int taskIndex;
   public final int taskCount;
   public final TaskPartitioner taskPartitioner;
   public final boolean bufferedInputStream;
   public final int fileBufferSizeBytes;
   public final boolean inputPathWalkRecursively;
+  public final int inputPathWalkWindowSize;
+  public final int inputPathWalkParallelism;
   public final boolean inputPathWalkRecursivelyRetainSubDirs;
 
+  static Map<String, Integer> fairShareWeights(List<String> pairs) {
+    final Map<String, Integer> result = new LinkedHashMap<>();
+    for (String pair : pairs) {
+      final int index = pair.lastIndexOf(':');
+      Integer weight = null;
+      if (index > 0) {
+        weight = Ints.tryParse(pair.substring(index + 1).trim());
+      }
+      if (null == weight || weight < 1) {
+        throw new ConnectException(
+            String.format("'%s' is not a valid entry for '%s'. Expected name:weight with a weight of at least 1.", pair, FILE_FAIR_SHARE_WEIGHTS_CONF)
+        );
+      }
+      result.put(pair.substring(0, index).trim(), weight);
+    }
+    return result;
+  }
+
   public final boolean finishedPathRequired() {
     boolean result;
 
@@ -165,18 +285,40 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
     this.haltOnError = this.getBoolean(HALT_ON_ERROR_CONF);
     this.minimumFileAgeMS = this.getLong(FILE_MINIMUM_AGE_MS_CONF);
     this.batchSize = this.getInt(BATCH_SIZE_CONF);
+    this.batchAdaptiveEnabled = this.getBoolean(BATCH_ADAPTIVE_ENABLED_CONF);
+    this.batchTargetBytes = this.getLong(BATCH_TARGET_BYTES_CONF);
+    this.batchMaxLatencyMs = this.getLong(BATCH_MAX_LATENCY_MS_CONF);
     this.topic = this.getString(TOPIC_CONF);
     this.emptyPollWaitMs = this.getLong(EMPTY_POLL_WAIT_MS_CONF);
+    this.emptyPollWaitMaxMs = this.getLong(EMPTY_POLL_WAIT_MAX_MS_CONF);
+    this.memoryBudgetBytes = this.getLong(MEMORY_BUDGET_BYTES_CONF);
+    this.processingFileLeaseMs = this.getLong(PROCESSING_FILE_LEASE_MS_CONF);
+    this.inputPathWatchEnabled = this.getBoolean(INPUT_PATH_WATCH_ENABLED_CONF);
     this.processingFileExtension = this.getString(PROCESSING_FILE_EXTENSION_CONF);
     this.timestampMode = ConfigUtils.getEnum(TimestampMode.class, this, TIMESTAMP_MODE_CONF);
     final String inputPatternText = this.getString(INPUT_FILE_PATTERN_CONF);
     final Pattern inputPattern = Pattern.compile(inputPatternText);
     this.inputFilenameFilter = new PatternFilenameFilter(inputPattern);
     this.fileSortAttributes = ConfigUtils.getEnums(FileAttribute.class, this, FILE_SORT_ATTRIBUTES_CONF);
+    this.filePriority = ConfigUtils.getEnum(FilePriority.class, this, FILE_PRIORITY_CONF);
+    final String filePriorityPatternText = this.getString(FILE_PRIORITY_PATTERN_CONF);
+    if (FilePriority.FileNamePattern == this.filePriority && Strings.isNullOrEmpty(filePriorityPatternText)) {
+      throw new ConnectException(
+          String.format("'%s' must be set if '%s' = %s.", FILE_PRIORITY_PATTERN_CONF, FILE_PRIORITY_CONF, this.filePriority)
+      );
+    }
+    this.filePriorityPattern = Strings.isNullOrEmpty(filePriorityPatternText) ? null : Pattern.compile(filePriorityPatternText);
+    this.filePrioritySubDirectories = this.getList(FILE_PRIORITY_SUBDIRECTORIES_CONF);
+    this.filePriorityMaxWaitMs = this.getLong(FILE_PRIORITY_MAX_WAIT_MS_CONF);
+    this.inputPathRescanIntervalMs = this.getLong(INPUT_PATH_RESCAN_INTERVAL_MS_CONF);
+    this.fileFairShareEnabled = this.getBoolean(FILE_FAIR_SHARE_ENABLED_CONF);
+    this.fileFairShareWeights = fairShareWeights(this.getList(FILE_FAIR_SHARE_WEIGHTS_CONF));
     this.taskIndex = getInt(TASK_INDEX_CONF);
     this.taskCount = getInt(TASK_COUNT_CONF);
     this.taskPartitioner = ConfigUtils.getEnum(TaskPartitioner.class, this, TASK_PARTITIONER_CONF);
     this.inputPathWalkRecursively = this.getBoolean(INPUT_PATH_WALK_RECURSIVELY);
+    this.inputPathWalkWindowSize = this.getInt(INPUT_PATH_WALK_WINDOW_SIZE_CONF);
+    this.inputPathWalkParallelism = this.getInt(INPUT_PATH_WALK_PARALLELISM_CONF);
     this.inputPathWalkRecursivelyRetainSubDirs = this.getBoolean(CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH);
 
     if (bufferedInputStream) {
@@ -202,6 +344,29 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
                 .defaultValue(BATCH_SIZE_DEFAULT)
                 .group(GROUP_GENERAL)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(BATCH_ADAPTIVE_ENABLED_CONF, ConfigDef.Type.BOOLEAN)
+                .documentation(BATCH_ADAPTIVE_ENABLED_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(false)
+                .group(GROUP_GENERAL)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(BATCH_TARGET_BYTES_CONF, ConfigDef.Type.LONG)
+                .documentation(BATCH_TARGET_BYTES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(4L * 1024L * 1024L)
+                .validator(ConfigDef.Range.atLeast(1L))
+                .group(GROUP_GENERAL)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(BATCH_MAX_LATENCY_MS_CONF, ConfigDef.Type.LONG)
+                .documentation(BATCH_MAX_LATENCY_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(1000L)
+                .validator(ConfigDef.Range.atLeast(1L))
+                .group(GROUP_GENERAL)
+                .build()
         ).define(
             ConfigKeyBuilder.of(EMPTY_POLL_WAIT_MS_CONF, ConfigDef.Type.LONG)
                 .documentation(EMPTY_POLL_WAIT_MS_DOC)
@@ -210,6 +375,37 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
                 .validator(ConfigDef.Range.between(1L, Long.MAX_VALUE))
                 .group(GROUP_GENERAL)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(EMPTY_POLL_WAIT_MAX_MS_CONF, ConfigDef.Type.LONG)
+                .documentation(EMPTY_POLL_WAIT_MAX_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(0L)
+                .validator(ConfigDef.Range.atLeast(0L))
+                .group(GROUP_GENERAL)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(MEMORY_BUDGET_BYTES_CONF, ConfigDef.Type.LONG)
+                .documentation(MEMORY_BUDGET_BYTES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(0L)
+                .validator(ConfigDef.Range.atLeast(0L))
+                .group(GROUP_GENERAL)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(PROCESSING_FILE_LEASE_MS_CONF, ConfigDef.Type.LONG)
+                .documentation(PROCESSING_FILE_LEASE_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(0L)
+                .validator(ConfigDef.Range.atLeast(0L))
+                .group(GROUP_FILESYSTEM)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(INPUT_PATH_WATCH_ENABLED_CONF, ConfigDef.Type.BOOLEAN)
+                .documentation(INPUT_PATH_WATCH_ENABLED_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(false)
+                .group(GROUP_FILESYSTEM)
+                .build()
         )
         .define(
             ConfigKeyBuilder.of(CLEANUP_POLICY_CONF, ConfigDef.Type.STRING)
@@ -290,6 +486,58 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
                 .group(GROUP_FILESYSTEM)
                 .defaultValue(ImmutableList.of(FileAttribute.NameAsc.name()))
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_PRIORITY_CONF, ConfigDef.Type.STRING)
+                .documentation(FILE_PRIORITY_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .validator(ValidEnum.of(FilePriority.class))
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(FilePriority.FileAttributes.name())
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_PRIORITY_PATTERN_CONF, ConfigDef.Type.STRING)
+                .documentation(FILE_PRIORITY_PATTERN_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_FILESYSTEM)
+                .defaultValue("")
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_PRIORITY_SUBDIRECTORIES_CONF, ConfigDef.Type.LIST)
+                .documentation(FILE_PRIORITY_SUBDIRECTORIES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(ImmutableList.of())
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_PRIORITY_MAX_WAIT_MS_CONF, ConfigDef.Type.LONG)
+                .documentation(FILE_PRIORITY_MAX_WAIT_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .validator(ConfigDef.Range.atLeast(0L))
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(0L)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_FAIR_SHARE_ENABLED_CONF, ConfigDef.Type.BOOLEAN)
+                .documentation(FILE_FAIR_SHARE_ENABLED_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(false)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(FILE_FAIR_SHARE_WEIGHTS_CONF, ConfigDef.Type.LIST)
+                .documentation(FILE_FAIR_SHARE_WEIGHTS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(ImmutableList.of())
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(INPUT_PATH_RESCAN_INTERVAL_MS_CONF, ConfigDef.Type.LONG)
+                .documentation(INPUT_PATH_RESCAN_INTERVAL_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .validator(ConfigDef.Range.atLeast(0L))
+                .group(GROUP_FILESYSTEM)
+                .defaultValue(0L)
+                .build()
         ).define(
             ConfigKeyBuilder.of(TASK_INDEX_CONF, ConfigDef.Type.INT)
                 .documentation(TASK_INDEX_DOC)
@@ -321,6 +569,22 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
                 .defaultValue(INPUT_PATH_WALK_RECURSIVELY_DEFAULT)
                 .group(GROUP_FILESYSTEM)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(INPUT_PATH_WALK_WINDOW_SIZE_CONF, ConfigDef.Type.INT)
+                .documentation(INPUT_PATH_WALK_WINDOW_SIZE_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(0)
+                .validator(ConfigDef.Range.atLeast(0))
+                .group(GROUP_FILESYSTEM)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(INPUT_PATH_WALK_PARALLELISM_CONF, ConfigDef.Type.INT)
+                .documentation(INPUT_PATH_WALK_PARALLELISM_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(1)
+                .validator(ConfigDef.Range.between(1, 256))
+                .group(GROUP_FILESYSTEM)
+                .build()
         ).define(
             ConfigKeyBuilder.of(CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH, ConfigDef.Type.BOOLEAN)
                 .documentation(CLEANUP_POLICY_MAINTAIN_RELATIVE_PATH_DOC)
@@ -367,6 +631,12 @@ public abstract class AbstractSourceConnectorConfig extends AbstractConfig {
     LastModifiedDesc
   }
 
+  public enum FilePriority {
+    FileAttributes,
+    FileNamePattern,
+    SubDirectory
+  }
+
   public enum TaskPartitioner {
     ByName
   }
@@ -16,6 +16,7 @@
 package com.github.jcustenborder.kafka.connect.spooldir;
 
 import com.github.jcustenborder.kafka.connect.utils.VersionUtil;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
@@ -30,12 +31,16 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorConfig> extends SourceTask {
   private static final Logger log = LoggerFactory.getLogger(AbstractSourceTask.class);
+  static final String BYTE_OFFSET_KEY = "bytes";
   protected Map<String, ?> sourcePartition;
   protected CONF config;
   private final Stopwatch processingTime = Stopwatch.createUnstarted();
@@ -104,6 +109,53 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
 
   protected abstract long recordOffset();
 
+  /**
+   * Method is used to return the number of bytes of the file that have been read up to and
+   * including the current record. Tasks that can seek to this position when a file is resumed
+   * override this method.
+   *
+   * @return number of bytes or -1 if the task does not track bytes.
+   */
+  protected long byteOffset() {
+    return -1L;
+  }
+
+  /**
+   * Method is used to return the number of bytes of the current file read so far. Used to size
+   * batches when batch.adaptive.enabled is set. The default counts the bytes taken from the input
+   * stream, which runs ahead of the records by up to a buffer, so tasks that know the position of
+   * their parser override this method.
+   *
+   * @return number of bytes.
+   */
+  protected long bytesRead() {
+    return null != this.inputFile ? this.inputFile.bytesRead() : 0L;
+  }
+
+  /**
+   * Method is used to return the number of records the next call to {@link #process()} should
+   * return at most.
+   *
+   * @return number of records.
+   */
+  protected int batchSize() {
+    return null != this.adaptiveBatchSize ? this.adaptiveBatchSize.size() : this.config.batchSize;
+  }
+
+  /**
+   * Method is used to estimate the number of bytes the next call to {@link #process()} will read.
+   * This is reserved from memory.budget.bytes before the batch is read. Uses the average bytes per
+   * record of the previous batches, or batch.target.bytes until a batch has been read.
+   *
+   * @return number of bytes.
+   */
+  protected long estimateBatchBytes() {
+    if (Double.isNaN(this.bytesPerRecord)) {
+      return this.config.batchTargetBytes;
+    }
+    return (long) Math.ceil(batchSize() * this.bytesPerRecord);
+  }
+
   @Override
   public void start(Map<String, String> settings) {
     this.config = config(settings);
@@ -116,6 +168,19 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
     }
 
     this.inputFileDequeue = new InputFileDequeue(this.config);
+    this.owner = InputFile.DEFAULT_OWNER + "/" + UUID.randomUUID();
+    this.emptyPollWait = EmptyPollWait.create(this.config);
+    this.memoryBudget = this.config.memoryBudgetBytes > 0 ? MemoryBudget.shared(this.config.memoryBudgetBytes) : null;
+
+    if (this.config.batchAdaptiveEnabled) {
+      this.adaptiveBatchSize = new AdaptiveBatchSize(
+          this.config.batchSize,
+          this.config.batchTargetBytes,
+          this.config.batchMaxLatencyMs
+      );
+    } else {
+      this.adaptiveBatchSize = null;
+    }
   }
 
   @Override
@@ -128,6 +193,13 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
       if (null != this.cleanUpPolicy) {
         this.cleanUpPolicy.close();
       }
+      if (null != this.emptyPollWait) {
+        this.emptyPollWait.close();
+      }
+      if (null != this.inputFileDequeue) {
+        this.inputFileDequeue.close();
+      }
+      releaseReservations();
     } catch (IOException ex) {
       log.error("Exception thrown while closing {}", this.inputFile);
     }
@@ -139,8 +211,30 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
   }
 
   InputFileDequeue inputFileDequeue;
+  AdaptiveBatchSize adaptiveBatchSize;
+  EmptyPollWait emptyPollWait;
+  MemoryBudget memoryBudget;
+  /**
+   * Id written to the processing flags created by this task.
+   */
+  String owner = InputFile.DEFAULT_OWNER;
+  long lastHeartbeat;
+  /**
+   * Bytes reserved from the memory budget for each record that has not been committed yet.
+   * Updated from the producer's callback thread.
+   */
+  final Map<SourceRecord, Long> reservations = Collections.synchronizedMap(new IdentityHashMap<>());
+  /**
+   * Moving average of the bytes read per record, used to estimate the size of the next batch.
+   */
+  double bytesPerRecord = Double.NaN;
   int emptyCount = 0;
   long recordCount;
+  /**
+   * Byte offset stored with the last committed record of the current file, or null if there is
+   * none. Set before {@link #configure(InputFile, Long)} is called.
+   */
+  protected Long lastByteOffset;
 
   @Override
   public List<SourceRecord> poll() throws InterruptedException {
@@ -150,12 +244,13 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
     if (results.isEmpty()) {
       emptyCount++;
       if (emptyCount > 1) {
-        log.trace("read() returned empty list. Sleeping {} ms.", this.config.emptyPollWaitMs);
-        Thread.sleep(this.config.emptyPollWaitMs);
+        log.trace("read() returned empty list. Waiting.");
+        this.emptyPollWait.await();
       }
       return null;
     }
     emptyCount = 0;
+    this.emptyPollWait.reset();
     log.trace("read() returning {} result(s)", results.size());
 
     return results;
@@ -220,7 +315,7 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
         }
 
         log.trace("read() - polling for next file.");
-        InputFile nextFile = this.inputFileDequeue.poll();
+        InputFile nextFile = nextFile();
 
         log.trace("read() - nextFile = '{}'", nextFile);
         if (null == nextFile) {
@@ -236,9 +331,14 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
           Long lastOffset = null;
           log.trace("looking up offset for {}", this.sourcePartition);
           Map<String, Object> offset = this.context.offsetStorageReader().offset(this.sourcePartition);
+          this.lastByteOffset = null;
           if (null != offset && !offset.isEmpty()) {
             Number number = (Number) offset.get("offset");
             lastOffset = number.longValue();
+            Number byteOffset = (Number) offset.get(BYTE_OFFSET_KEY);
+            if (null != byteOffset) {
+              this.lastByteOffset = byteOffset.longValue();
+            }
           }
 
           this.cleanUpPolicy = AbstractCleanUpPolicy.create(this.config, this.inputFile);
@@ -251,7 +351,37 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
         processingTime.reset();
         processingTime.start();
       }
-      List<SourceRecord> records = process();
+      if (!heartbeat()) {
+        return new ArrayList<>();
+      }
+      final long reserved = reserveMemory();
+      if (reserved < 0) {
+        // The file is still open and has not been read yet.
+        this.hasRecords = true;
+        return new ArrayList<>();
+      }
+      final long bytesBefore = bytesRead();
+      final long started = System.nanoTime();
+      final List<SourceRecord> records;
+      try {
+        records = process();
+      } catch (Exception ex) {
+        if (null != this.memoryBudget) {
+          this.memoryBudget.release(reserved);
+        }
+        throw ex;
+      }
+      final long batchBytes = bytesRead() - bytesBefore;
+      if (!records.isEmpty()) {
+        final double bytesPerRecord = (double) Math.max(batchBytes, 0L) / records.size();
+        this.bytesPerRecord = AdaptiveBatchSize.average(this.bytesPerRecord, bytesPerRecord);
+      }
+      if (null != this.adaptiveBatchSize) {
+        this.adaptiveBatchSize.update(records.size(), batchBytes, System.nanoTime() - started);
+      }
+      if (null != this.memoryBudget) {
+        assignReservations(records, reserved, batchBytes);
+      }
       this.hasRecords = !records.isEmpty();
       return records;
     } catch (Exception ex) {
@@ -276,10 +406,144 @@ public abstract class AbstractSourceTask<CONF extends AbstractSourceConnectorCon
     }
   }
 
+  /**
+   * Takes files from the queue until one can be claimed.
+   *
+   * @return the claimed file or null if there are none.
+   */
+  InputFile nextFile() {
+    File file;
+    while (null != (file = this.inputFileDequeue.poll())) {
+      final InputFile result = new InputFile(this.config, file);
+      try {
+        if (result.claim(this.owner)) {
+          this.lastHeartbeat = System.currentTimeMillis();
+          return result;
+        }
+        if (this.config.processingFileLeaseMs > 0 && result.reclaim(this.owner, this.config.processingFileLeaseMs)) {
+          this.lastHeartbeat = System.currentTimeMillis();
+          return result;
+        }
+        log.debug("nextFile() - Skipping '{}' because it was claimed by another task.", result);
+      } catch (IOException ex) {
+        log.warn("Could not create the processing flag for '{}'. Skipping.", result, ex);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Refreshes the lease on the processing flag of the current file. Runs in the poll thread, so
+   * the lease has to be longer than the time it takes to read a batch. If another task has taken
+   * the file over in the meantime, the file is given up without running the clean up policy.
+   *
+   * @return false if the current file was given up.
+   */
+  boolean heartbeat() {
+    if (this.config.processingFileLeaseMs <= 0 || null == this.inputFile) {
+      return true;
+    }
+    final long now = System.currentTimeMillis();
+    if (now - this.lastHeartbeat < this.config.processingFileLeaseMs / 3) {
+      return true;
+    }
+    this.lastHeartbeat = now;
+    if (this.inputFile.heartbeat()) {
+      return true;
+    }
+    log.warn("Lost the processing flag of {}. Giving the file up.", this.inputFile);
+    try {
+      this.inputFile.close();
+    } catch (IOException ex) {
+      log.warn("Exception thrown while closing {}", this.inputFile, ex);
+    }
+    this.inputFile = null;
+    this.cleanUpPolicy = null;
+    this.hasRecords = false;
+    return false;
+  }
+
+  /**
+   * Reserves the estimated size of the next batch from the memory budget.
+   *
+   * @return number of bytes reserved, 0 if there is no budget or -1 if the budget is used up.
+   */
+  long reserveMemory() {
+    if (null == this.memoryBudget) {
+      return 0L;
+    }
+    try {
+      final long result = this.memoryBudget.tryAcquire(estimateBatchBytes(), this.config.emptyPollWaitMs);
+      if (result < 0) {
+        log.debug("reserveMemory() - Memory budget is used up. Waiting for records to be committed.");
+      }
+      return result;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return -1L;
+    }
+  }
+
+  /**
+   * Adjusts the reservation to the bytes the batch actually read and spreads it over the records
+   * so each can be given back when it is committed.
+   */
+  void assignReservations(List<SourceRecord> records, long reserved, long batchBytes) {
+    final long bytes = records.isEmpty() ? 0L : Math.max(batchBytes, 0L);
+    if (bytes > reserved) {
+      this.memoryBudget.acquire(bytes - reserved);
+    } else {
+      this.memoryBudget.release(reserved - bytes);
+    }
+    if (records.isEmpty()) {
+      return;
+    }
+    final long share = bytes / records.size();
+    long remainder = bytes - share * records.size();
+    for (SourceRecord record : records) {
+      this.reservations.put(record, share + remainder);
+      remainder = 0L;
+    }
+  }
+
+  void releaseReservations() {
+    if (null == this.memoryBudget) {
+      return;
+    }
+    long bytes = 0L;
+    synchronized (this.reservations) {
+      for (Long reservation : this.reservations.values()) {
+        bytes += reservation;
+      }
+      this.reservations.clear();
+    }
+    this.memoryBudget.release(bytes);
+  }
+
+  @Override
+  public void commitRecord(SourceRecord record, RecordMetadata metadata) throws InterruptedException {
+    if (null != this.memoryBudget) {
+      final Long bytes = this.reservations.remove(record);
+      if (null != bytes) {
+        this.memoryBudget.release(bytes);
+      }
+    }
+    super.commitRecord(record, metadata);
+  }
+
   protected Map<String, ?> offset() {
+    final long byteOffset = byteOffset();
+    if (byteOffset < 0) {
+      return ImmutableMap.of(
+          "offset",
+          recordOffset()
+      );
+    }
     return ImmutableMap.of(
         "offset",
-        recordOffset()
+        recordOffset(),
+        BYTE_OFFSET_KEY,
+        byteOffset
     );
   }
 
@@ -18,8 +18,9 @@ package com.github.jcustenborder.kafka.connect.spooldir;
 import com.github.jcustenborder.kafka.connect.utils.VersionUtil;
 import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.errors.DataException;
@@ -28,13 +29,20 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 public abstract class AbstractSpoolDirSourceConnector<CONF extends AbstractSpoolDirSourceConnectorConfig> extends AbstractSourceConnector<CONF> {
   private static final Logger log = LoggerFactory.getLogger(AbstractSpoolDirSourceConnector.class);
@@ -46,6 +54,137 @@ public abstract class AbstractSpoolDirSourceConnector<CONF extends AbstractSpool
     return VersionUtil.version(this.getClass());
   }
 
+  /**
+   * Method is used to find the files to generate a schema from. The input path is listed lazily so
+   * only the first matching files are read from the directory.
+   *
+   * @return files to probe.
+   * @throws IOException thrown if the directory cannot be listed.
+   */
+  List<File> probeFiles() throws IOException {
+    final List<File> result = new ArrayList<>(this.config.schemaGenerationProbeFiles);
+    try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(
+        this.config.inputPath.toPath(),
+        path -> !GeneratedSchemaCache.isCacheFile(path.getFileName().toString()) &&
+            this.config.inputFilenameFilter.accept(path.getParent().toFile(), path.getFileName().toString())
+    )) {
+      for (Path path : directoryStream) {
+        result.add(path.toFile());
+        if (result.size() >= this.config.schemaGenerationProbeFiles) {
+          break;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Method is used to generate schemas for the files in parallel. Files that are not finished
+   * within the probe timeout are skipped.
+   *
+   * @param generator  generator used to create the schemas.
+   * @param inputFiles files to generate schemas for.
+   * @return file to key and value schema, in the order of inputFiles.
+   * @throws IOException thrown if a schema could not be generated.
+   */
+  Map<File, Map.Entry<Schema, Schema>> probe(AbstractSchemaGenerator<CONF> generator, List<File> inputFiles) throws IOException {
+    final List<Callable<Map.Entry<Schema, Schema>>> callables = new ArrayList<>(inputFiles.size());
+    for (File inputFile : inputFiles) {
+      callables.add(() -> generator.generate(inputFile, this.config.keyFields));
+    }
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(
+        Math.min(inputFiles.size(), Runtime.getRuntime().availableProcessors()),
+        new ThreadFactoryBuilder()
+            .setDaemon(true)
+            .setNameFormat("spooldir-schema-probe-%d")
+            .build()
+    );
+    final Map<File, Map.Entry<Schema, Schema>> result = new LinkedHashMap<>();
+    try {
+      final List<Future<Map.Entry<Schema, Schema>>> futures = executorService.invokeAll(
+          callables,
+          this.config.schemaGenerationProbeTimeoutMs,
+          TimeUnit.MILLISECONDS
+      );
+      for (int i = 0; i < futures.size(); i++) {
+        final File inputFile = inputFiles.get(i);
+        final Future<Map.Entry<Schema, Schema>> future = futures.get(i);
+        if (future.isCancelled()) {
+          log.warn("Skipping {}. Schema generation did not finish within {} ms.", inputFile, this.config.schemaGenerationProbeTimeoutMs);
+          continue;
+        }
+        try {
+          result.put(inputFile, future.get());
+        } catch (ExecutionException ex) {
+          final Throwable cause = ex.getCause();
+          if (cause instanceof IOException) {
+            throw (IOException) cause;
+          }
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          }
+          throw new ConnectException(cause);
+        }
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new ConnectException("Interrupted while generating schema", ex);
+    } finally {
+      executorService.shutdownNow();
+    }
+    return result;
+  }
+
+  /**
+   * Method is used to generate a key and value schema from the input files. Every file must
+   * generate the same schema.
+   *
+   * @param generator  generator used to create the schemas.
+   * @param inputFiles files to generate schemas for.
+   * @return key and value schema.
+   * @throws IOException thrown if a schema could not be generated.
+   */
+  Map.Entry<Schema, Schema> generateSchemas(AbstractSchemaGenerator<CONF> generator, List<File> inputFiles) throws IOException {
+    final Map<Schema, Map.Entry<Schema, Schema>> schemas = new LinkedHashMap<>();
+    final Multimap<Schema, File> schemaToFiles = LinkedHashMultimap.create();
+    for (Map.Entry<File, Map.Entry<Schema, Schema>> probe : probe(generator, inputFiles).entrySet()) {
+      final Map.Entry<Schema, Schema> schemaEntry = probe.getValue();
+      schemaToFiles.put(schemaEntry.getValue(), probe.getKey());
+      schemas.putIfAbsent(schemaEntry.getValue(), schemaEntry);
+    }
+
+    Map<Schema, Collection<File>> schemaToFilesMap = schemaToFiles.asMap();
+    if (schemaToFilesMap.size() > 1) {
+      StringBuilder builder = new StringBuilder();
+      builder.append("More than one schema was found for the input pattern.\n");
+      for (Schema schema : schemaToFilesMap.keySet()) {
+        builder.append("Schema: ");
+        builder.append(ObjectMapperFactory.INSTANCE.writeValueAsString(schema));
+        builder.append("\n");
+
+        for (File f : schemaToFilesMap.get(schema)) {
+          builder.append("  ");
+          builder.append(f);
+          builder.append("\n");
+        }
+      }
+
+      throw new DataException(builder.toString());
+    }
+
+    Map.Entry<Schema, Schema> schemaPair = null;
+    for (Map.Entry<Schema, Schema> s : schemas.values()) {
+      schemaPair = s;
+      break;
+    }
+
+    if (null == schemaPair) {
+      throw new DataException("Schema could not be generated.");
+    }
+    return schemaPair;
+  }
+
   @Override
   public void start(final Map<String, String> input) {
     super.start(input);
@@ -57,51 +196,30 @@ public abstract class AbstractSpoolDirSourceConnector<CONF extends AbstractSpool
       AbstractSchemaGenerator<CONF> generator = generator(settings);
 
       try {
-        List<File> inputFiles = Arrays.stream(this.config.inputPath.listFiles(this.config.inputFilenameFilter))
-            .limit(5)
-            .collect(Collectors.toList());
+        final List<File> inputFiles = probeFiles();
         Preconditions.checkState(
             !inputFiles.isEmpty(),
             "Could not find any input file(s) to infer schema from."
         );
 
-        Map<String, Map.Entry<Schema, Schema>> schemas = new HashMap<>();
-        Multimap<String, File> schemaToFiles = HashMultimap.create();
-
-        for (File inputFile : inputFiles) {
-          Map.Entry<Schema, Schema> schemaEntry = generator.generate(inputFile, this.config.keyFields);
-          String schema = ObjectMapperFactory.INSTANCE.writeValueAsString(schemaEntry.getValue());
-          schemaToFiles.put(schema, inputFile);
-          schemas.put(schema, schemaEntry);
-        }
-
-        Map<String, Collection<File>> schemaToFilesMap = schemaToFiles.asMap();
-        if (1 != schemaToFilesMap.keySet().size()) {
-          StringBuilder builder = new StringBuilder();
-          builder.append("More than one schema was found for the input pattern.\n");
-          for (String schema : schemaToFilesMap.keySet()) {
-            builder.append("Schema: ");
-            builder.append(schema);
-            builder.append("\n");
-
-            for (File f : schemaToFilesMap.get(schema)) {
-              builder.append("  ");
-              builder.append(f);
-              builder.append("\n");
+        final Map.Entry<Schema, Schema> schemaPair;
+        if (this.config.schemaGenerationCacheEnabled) {
+          final GeneratedSchemaCache cache = new GeneratedSchemaCache(this.config.schemaGenerationCachePath);
+          final String cacheKey = GeneratedSchemaCache.key(generator, input, inputFiles);
+          final Map.Entry<Schema, Schema> cached = cache.get(cacheKey);
+          if (null != cached) {
+            log.info("Using schema {} cached in {}.", cacheKey, cache.file);
+            schemaPair = cached;
+          } else {
+            schemaPair = generateSchemas(generator, inputFiles);
+            try {
+              cache.put(cacheKey, schemaPair);
+            } catch (IOException ex) {
+              log.warn("Could not write generated schema to {}.", cache.file, ex);
             }
           }
-
-          throw new DataException(builder.toString());
-        }
-
-        Map.Entry<Schema, Schema> schemaPair = null;
-        for (Map.Entry<Schema, Schema> s : schemas.values()) {
-          schemaPair = s;
-          break;
-        }
-
-        if (null == schemaPair) {
-          throw new DataException("Schema could not be generated.");
+        } else {
+          schemaPair = generateSchemas(generator, inputFiles);
         }
 
         final String keySchema = ObjectMapperFactory.INSTANCE.writeValueAsString(schemaPair.getKey());
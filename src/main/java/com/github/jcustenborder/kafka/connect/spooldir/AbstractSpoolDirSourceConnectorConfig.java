@@ -32,6 +32,7 @@ import org.apache.kafka.connect.errors.DataException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -48,18 +49,29 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
   public static final String VALUE_SCHEMA_CONF = "value.schema";
   public static final String PARSER_TIMESTAMP_DATE_FORMATS_CONF = "parser.timestamp.date.formats";
   public static final String PARSER_TIMESTAMP_TIMEZONE_CONF = "parser.timestamp.timezone";
+  public static final String PARSER_TIMESTAMP_EPOCH_MILLIS_CONF = "parser.timestamp.epoch.millis.enabled";
   public static final String SCHEMA_GENERATION_KEY_FIELDS_CONF = "schema.generation.key.fields";
   public static final String SCHEMA_GENERATION_KEY_NAME_CONF = "schema.generation.key.name";
   public static final String SCHEMA_GENERATION_VALUE_NAME_CONF = "schema.generation.value.name";
   public static final String SCHEMA_GENERATION_ENABLED_CONF = "schema.generation.enabled";
+  public static final String SCHEMA_GENERATION_SAMPLE_SIZE_CONF = "schema.generation.sample.size";
+  public static final String SCHEMA_GENERATION_PROBE_FILES_CONF = "schema.generation.probe.files";
+  public static final String SCHEMA_GENERATION_PROBE_MAX_BYTES_CONF = "schema.generation.probe.max.bytes";
+  public static final String SCHEMA_GENERATION_PROBE_TIMEOUT_MS_CONF = "schema.generation.probe.timeout.ms";
+  public static final String SCHEMA_GENERATION_CACHE_ENABLED_CONF = "schema.generation.cache.enabled";
+  public static final String SCHEMA_GENERATION_CACHE_PATH_CONF = "schema.generation.cache.path";
   public static final String GROUP_SCHEMA_GENERATION = "Schema Generation";
   public static final String GROUP_SCHEMA = "Schema";
   static final String KEY_SCHEMA_DOC = "The schema for the key written to Kafka.";
   static final String VALUE_SCHEMA_DOC = "The schema for the value written to Kafka.";
   static final String PARSER_TIMESTAMP_DATE_FORMATS_DOC = "The date formats that are expected in the file. This is a list " +
       "of strings that will be used to parse the date fields in order. The most accurate date format should be the first " +
-      "in the list. Take a look at the Java documentation for more info. " +
+      "in the list. The format that matched the previous value of a field is tried first, as long as it matches the " +
+      "whole value. ISO 8601 formats such as `yyyy-MM-dd'T'HH:mm:ss.SSSXXX` are parsed without SimpleDateFormat when " +
+      "the value has exactly the expected layout. Take a look at the Java documentation for more info. " +
       "https://docs.oracle.com/javase/6/docs/api/java/text/SimpleDateFormat.html";
+  static final String PARSER_TIMESTAMP_EPOCH_MILLIS_DOC = "Flag to determine if date fields that only contain digits " +
+      "should be read as milliseconds since the epoch. These values are checked before `" + PARSER_TIMESTAMP_DATE_FORMATS_CONF + "`.";
   static final List<String> PARSER_TIMESTAMP_DATE_FORMATS_DEFAULT = Arrays.asList("yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd' 'HH:mm:ss");
   static final String PARSER_TIMESTAMP_TIMEZONE_DOC = "The timezone that all of the dates will be parsed with.";
   static final String PARSER_TIMESTAMP_TIMEZONE_DEFAULT = "UTC";
@@ -69,6 +81,23 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
   static final String SCHEMA_GENERATION_ENABLED_DOC = "Flag to determine if schemas should be dynamically generated. If set " +
       " to true, `" + KEY_SCHEMA_CONF + "` and `" + VALUE_SCHEMA_CONF + "` can be omitted, but `" + SCHEMA_GENERATION_KEY_NAME_CONF + "` " +
       "and `" + SCHEMA_GENERATION_VALUE_NAME_CONF + "` must be set.";
+  static final String SCHEMA_GENERATION_SAMPLE_SIZE_DOC = "The maximum number of records that are sampled from each " +
+      "file when the types of the fields are inferred during schema generation.";
+  static final int SCHEMA_GENERATION_SAMPLE_SIZE_DEFAULT = 1000;
+  static final String SCHEMA_GENERATION_PROBE_FILES_DOC = "The number of files in `" + INPUT_PATH_CONFIG + "` that are " +
+      "read in parallel to generate a schema. Every file must generate the same schema.";
+  static final int SCHEMA_GENERATION_PROBE_FILES_DEFAULT = 5;
+  static final String SCHEMA_GENERATION_PROBE_MAX_BYTES_DOC = "The number of bytes read from the start of each file " +
+      "when generating a schema. Reading stops at the end of the line that crosses this limit.";
+  static final long SCHEMA_GENERATION_PROBE_MAX_BYTES_DEFAULT = 64L * 1024L * 1024L;
+  static final String SCHEMA_GENERATION_PROBE_TIMEOUT_MS_DOC = "The maximum amount of time in milliseconds to wait " +
+      "for schemas to be generated during startup. Files that have not been read by then are skipped.";
+  static final long SCHEMA_GENERATION_PROBE_TIMEOUT_MS_DEFAULT = 60000L;
+  static final String SCHEMA_GENERATION_CACHE_ENABLED_DOC = "Flag to determine if generated schemas should be stored " +
+      "in a `" + GeneratedSchemaCache.FILE_NAME + "` file and reused on the next start. The cached schema is used as long as " +
+      "the connector settings and the header of the files being probed do not change.";
+  static final String SCHEMA_GENERATION_CACHE_PATH_DOC = "The directory to write the `" + GeneratedSchemaCache.FILE_NAME + "` " +
+      "file to. If empty the file is written to `" + INPUT_PATH_CONFIG + "`.";
 
   private static final Logger log = LoggerFactory.getLogger(AbstractSpoolDirSourceConnectorConfig.class);
 
@@ -76,6 +105,7 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
   public final Schema valueSchema;
   public final SimpleDateFormat[] parserTimestampDateFormats;
   public final TimeZone parserTimestampTimezone;
+  public final boolean parserTimestampEpochMillis;
 
   public final String timestampField;
   public final List<String> keyFields;
@@ -83,6 +113,12 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
   public final boolean schemaGenerationEnabled;
   public final String schemaGenerationKeyName;
   public final String schemaGenerationValueName;
+  public final int schemaGenerationSampleSize;
+  public final int schemaGenerationProbeFiles;
+  public final long schemaGenerationProbeMaxBytes;
+  public final long schemaGenerationProbeTimeoutMs;
+  public final boolean schemaGenerationCacheEnabled;
+  public final File schemaGenerationCachePath;
 
 
   public AbstractSpoolDirSourceConnectorConfig(final boolean isTask, boolean bufferedInputStream, ConfigDef configDef, Map<String, ?> settings) {
@@ -93,6 +129,14 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
     this.schemaGenerationEnabled = this.getBoolean(SCHEMA_GENERATION_ENABLED_CONF);
     this.schemaGenerationKeyName = this.getString(SCHEMA_GENERATION_KEY_NAME_CONF);
     this.schemaGenerationValueName = this.getString(SCHEMA_GENERATION_VALUE_NAME_CONF);
+    this.schemaGenerationSampleSize = this.getInt(SCHEMA_GENERATION_SAMPLE_SIZE_CONF);
+    this.schemaGenerationProbeFiles = this.getInt(SCHEMA_GENERATION_PROBE_FILES_CONF);
+    this.schemaGenerationProbeMaxBytes = this.getLong(SCHEMA_GENERATION_PROBE_MAX_BYTES_CONF);
+    this.schemaGenerationProbeTimeoutMs = this.getLong(SCHEMA_GENERATION_PROBE_TIMEOUT_MS_CONF);
+    this.schemaGenerationCacheEnabled = this.getBoolean(SCHEMA_GENERATION_CACHE_ENABLED_CONF);
+    final String schemaGenerationCachePath = this.getString(SCHEMA_GENERATION_CACHE_PATH_CONF);
+    this.schemaGenerationCachePath = Strings.isNullOrEmpty(schemaGenerationCachePath) ?
+        this.inputPath : new File(schemaGenerationCachePath).getAbsoluteFile();
 
 
     String timestampTimezone = this.getString(PARSER_TIMESTAMP_TIMEZONE_CONF);
@@ -106,6 +150,7 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
       results.add(dateFormat);
     }
     this.parserTimestampDateFormats = results.toArray(new SimpleDateFormat[results.size()]);
+    this.parserTimestampEpochMillis = this.getBoolean(PARSER_TIMESTAMP_EPOCH_MILLIS_CONF);
 
 
     this.keySchema = readSchema(KEY_SCHEMA_CONF);
@@ -153,6 +198,17 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
         );
       }
 
+      if (null == this.valueSchema) {
+        throw new ConnectException(
+            String.format(
+                "When `%s` is set to `%s`, `%s` must be set.",
+                TIMESTAMP_MODE_CONF,
+                TimestampMode.FIELD,
+                VALUE_SCHEMA_CONF
+            )
+        );
+      }
+
       log.trace("ctor() - Looking for timestamp field '{}'", this.timestampField);
       Field timestampField = this.valueSchema.field(this.timestampField);
 
@@ -216,6 +272,24 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
         if (SCHEMA_GENERATION_KEY_FIELDS_CONF.endsWith(key)) {
           return schemaGenerationEnabled;
         }
+        if (SCHEMA_GENERATION_SAMPLE_SIZE_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
+        if (SCHEMA_GENERATION_PROBE_FILES_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
+        if (SCHEMA_GENERATION_PROBE_MAX_BYTES_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
+        if (SCHEMA_GENERATION_PROBE_TIMEOUT_MS_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
+        if (SCHEMA_GENERATION_CACHE_ENABLED_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
+        if (SCHEMA_GENERATION_CACHE_PATH_CONF.endsWith(key)) {
+          return schemaGenerationEnabled;
+        }
 
         return true;
       }
@@ -272,6 +346,58 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
                 .defaultValue("com.github.jcustenborder.kafka.connect.model.Value")
                 .recommender(schemaRecommender)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_SAMPLE_SIZE_CONF, Type.INT)
+                .documentation(SCHEMA_GENERATION_SAMPLE_SIZE_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(SCHEMA_GENERATION_SAMPLE_SIZE_DEFAULT)
+                .validator(ConfigDef.Range.atLeast(1))
+                .recommender(schemaRecommender)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_PROBE_FILES_CONF, Type.INT)
+                .documentation(SCHEMA_GENERATION_PROBE_FILES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(SCHEMA_GENERATION_PROBE_FILES_DEFAULT)
+                .validator(ConfigDef.Range.atLeast(1))
+                .recommender(schemaRecommender)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_PROBE_MAX_BYTES_CONF, Type.LONG)
+                .documentation(SCHEMA_GENERATION_PROBE_MAX_BYTES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(SCHEMA_GENERATION_PROBE_MAX_BYTES_DEFAULT)
+                .validator(ConfigDef.Range.atLeast(1L))
+                .recommender(schemaRecommender)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_PROBE_TIMEOUT_MS_CONF, Type.LONG)
+                .documentation(SCHEMA_GENERATION_PROBE_TIMEOUT_MS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(SCHEMA_GENERATION_PROBE_TIMEOUT_MS_DEFAULT)
+                .validator(ConfigDef.Range.atLeast(1L))
+                .recommender(schemaRecommender)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_CACHE_ENABLED_CONF, Type.BOOLEAN)
+                .documentation(SCHEMA_GENERATION_CACHE_ENABLED_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(false)
+                .recommender(schemaRecommender)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(SCHEMA_GENERATION_CACHE_PATH_CONF, Type.STRING)
+                .documentation(SCHEMA_GENERATION_CACHE_PATH_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue("")
+                .recommender(schemaRecommender)
+                .build()
         )
 
         .define(
@@ -288,6 +414,13 @@ public abstract class AbstractSpoolDirSourceConnectorConfig extends AbstractSour
                 .group(GROUP_TIMESTAMP)
                 .defaultValue(PARSER_TIMESTAMP_DATE_FORMATS_DEFAULT)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(PARSER_TIMESTAMP_EPOCH_MILLIS_CONF, Type.BOOLEAN)
+                .documentation(PARSER_TIMESTAMP_EPOCH_MILLIS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_TIMESTAMP)
+                .defaultValue(false)
+                .build()
         ).define(
             ConfigKeyBuilder.of(TIMESTAMP_FIELD_CONF, Type.STRING)
                 .documentation(TIMESTAMP_FIELD_DOC)
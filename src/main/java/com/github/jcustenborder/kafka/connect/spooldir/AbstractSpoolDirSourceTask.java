@@ -31,12 +31,14 @@ import org.apache.kafka.connect.source.SourceRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public abstract class AbstractSpoolDirSourceTask<CONF extends AbstractSpoolDirSourceConnectorConfig> extends AbstractSourceTask<CONF> {
   private static final Logger log = LoggerFactory.getLogger(AbstractSpoolDirSourceTask.class);
   protected Parser parser;
+  Map<String, TimestampFormatParser> dateTypeParsers;
 
   @Override
   public void start(Map<String, String> settings) {
@@ -49,11 +51,34 @@ public abstract class AbstractSpoolDirSourceTask<CONF extends AbstractSpoolDirSo
         Time.SCHEMA, new TimeTypeParser(this.config.parserTimestampTimezone, this.config.parserTimestampDateFormats)
     );
 
+    this.dateTypeParsers = new HashMap<>();
     for (Map.Entry<Schema, TypeParser> kvp : dateTypeParsers.entrySet()) {
-      this.parser.registerTypeParser(kvp.getKey(), kvp.getValue());
+      TimestampFormatParser typeParser = new TimestampFormatParser(
+          kvp.getValue(),
+          this.config.parserTimestampDateFormats,
+          this.config.parserTimestampEpochMillis
+      );
+      this.dateTypeParsers.put(kvp.getKey().name(), typeParser);
+      this.parser.registerTypeParser(kvp.getKey(), typeParser);
     }
   }
 
+  /**
+   * Method is used to resolve the parser for a single field once, instead of looking it up for
+   * every value. Date parsers are copied so the format that matched the field last time is
+   * remembered separately for each field.
+   *
+   * @param schema schema of the field.
+   * @return parser or null if values of the field should be parsed with {@link #parser}.
+   */
+  protected TypeParser fieldParser(Schema schema) {
+    if (NumericTypeParser.supports(schema)) {
+      return new NumericTypeParser(schema.type(), this.parser);
+    }
+    final TimestampFormatParser result = null == schema.name() ? null : this.dateTypeParsers.get(schema.name());
+    return null == result ? null : new TimestampFormatParser(result);
+  }
+
   protected void addRecord(List<SourceRecord> records, SchemaAndValue key, SchemaAndValue value) {
     final Long timestamp;
 
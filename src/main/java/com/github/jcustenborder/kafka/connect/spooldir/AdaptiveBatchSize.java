@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes batches so they stay under a byte budget and a time budget. Keeps moving averages of the
+ * bytes read and the time taken per record and picks the largest number of records, up to
+ * batch.size, that fits both. The size grows at most twice per batch so a bad estimate from a
+ * small batch does not turn into a huge one.
+ */
+class AdaptiveBatchSize {
+  private static final Logger log = LoggerFactory.getLogger(AdaptiveBatchSize.class);
+  /**
+   * Weight of the latest batch in the moving averages.
+   */
+  static final double ALPHA = 0.3;
+  static final int INITIAL_SIZE = 100;
+
+  final int maxRecords;
+  final long targetBytes;
+  final long maxLatencyNanos;
+  double bytesPerRecord = Double.NaN;
+  double nanosPerRecord = Double.NaN;
+  int size;
+
+  AdaptiveBatchSize(int maxRecords, long targetBytes, long maxLatencyMs) {
+    this.maxRecords = maxRecords;
+    this.targetBytes = targetBytes;
+    this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMs);
+    this.size = Math.max(1, Math.min(maxRecords, INITIAL_SIZE));
+  }
+
+  /**
+   * @return number of records for the next batch.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Method is used to record the result of a batch.
+   *
+   * @param records number of records returned.
+   * @param bytes   number of bytes read from the file.
+   * @param nanos   time taken.
+   */
+  void update(int records, long bytes, long nanos) {
+    if (records <= 0) {
+      return;
+    }
+    this.bytesPerRecord = average(this.bytesPerRecord, (double) bytes / records);
+    this.nanosPerRecord = average(this.nanosPerRecord, (double) nanos / records);
+
+    double size = this.maxRecords;
+    if (this.bytesPerRecord > 0) {
+      size = Math.min(size, this.targetBytes / this.bytesPerRecord);
+    }
+    if (this.nanosPerRecord > 0) {
+      size = Math.min(size, this.maxLatencyNanos / this.nanosPerRecord);
+    }
+    size = Math.min(size, 2.0 * this.size);
+    final int previous = this.size;
+    this.size = (int) Math.max(1, size);
+    if (previous != this.size) {
+      log.trace(
+          "update() - batch size {} -> {}. bytesPerRecord = {} nanosPerRecord = {}",
+          previous,
+          this.size,
+          this.bytesPerRecord,
+          this.nanosPerRecord
+      );
+    }
+  }
+
+  static double average(double average, double value) {
+    return Double.isNaN(average) ? value : average + ALPHA * (value - average);
+  }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.confluent.connect.avro.AvroData;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DatumReader that decodes Avro data directly to Connect data. This skips the GenericRecord that
+ * would normally be built and then walked again by AvroData. Schemas that cannot be mapped
+ * directly, such as non optional unions, fall back to GenericDatumReader and AvroData.
+ * <p>
+ * Conversions are cached by the fingerprint of the writer schema. Each file returns a new writer
+ * schema instance so the cache allows many small files with the same schema to share the Connect
+ * schema and the compiled reader.
+ */
+class ConnectDatumReader implements DatumReader<Object> {
+  private static final Logger log = LoggerFactory.getLogger(ConnectDatumReader.class);
+  private final AvroData avroData;
+  private final GenericDatumReader<Object> fallbackReader = new GenericDatumReader<>();
+  private final Cache<Long, Conversion> conversions;
+  private Conversion conversion;
+
+  ConnectDatumReader(AvroData avroData, int cacheSize) {
+    this.avroData = avroData;
+    this.conversions = CacheBuilder.newBuilder()
+        .maximumSize(cacheSize)
+        .build();
+  }
+
+  static class Conversion {
+    final org.apache.avro.Schema avroSchema;
+    final Schema connectSchema;
+    final ValueReader valueReader;
+
+    Conversion(org.apache.avro.Schema avroSchema, Schema connectSchema, ValueReader valueReader) {
+      this.avroSchema = avroSchema;
+      this.connectSchema = connectSchema;
+      this.valueReader = valueReader;
+    }
+  }
+
+  interface ValueReader {
+    Object read(Decoder in) throws IOException;
+  }
+
+  /**
+   * Computes the 64 bit Rabin fingerprint of the full schema. The parsing canonical form is not
+   * used because it drops logical types and connect properties that change the conversion.
+   *
+   * @param schema Avro schema
+   * @return fingerprint of the schema.
+   */
+  static long fingerprint(org.apache.avro.Schema schema) {
+    return SchemaNormalization.fingerprint64(
+        schema.toString().getBytes(StandardCharsets.UTF_8)
+    );
+  }
+
+  @Override
+  public void setSchema(org.apache.avro.Schema writerSchema) {
+    final long fingerprint = fingerprint(writerSchema);
+    Conversion conversion = this.conversions.getIfPresent(fingerprint);
+
+    if (null == conversion) {
+      log.trace("setSchema() - Building conversion for fingerprint {}", fingerprint);
+      conversion = conversion(writerSchema);
+      this.conversions.put(fingerprint, conversion);
+    } else {
+      log.trace("setSchema() - Reusing conversion for fingerprint {}", fingerprint);
+    }
+
+    if (null == conversion.valueReader) {
+      this.fallbackReader.setSchema(conversion.avroSchema);
+    }
+    this.conversion = conversion;
+  }
+
+  Conversion conversion(org.apache.avro.Schema writerSchema) {
+    final Schema connectSchema = this.avroData.toConnectSchema(writerSchema);
+
+    ValueReader valueReader;
+    try {
+      valueReader = compile(writerSchema, connectSchema);
+    } catch (UnsupportedOperationException ex) {
+      log.debug("conversion() - Falling back to AvroData. {}", ex.getMessage());
+      valueReader = null;
+    }
+    return new Conversion(writerSchema, connectSchema, valueReader);
+  }
+
+  /**
+   * The Connect schema for the current writer schema.
+   *
+   * @return Connect schema matching the output of AvroData.
+   */
+  public Schema connectSchema() {
+    return this.conversion.connectSchema;
+  }
+
+  @Override
+  public Object read(Object reuse, Decoder in) throws IOException {
+    if (null != this.conversion.valueReader) {
+      return this.conversion.valueReader.read(in);
+    }
+    Object container = this.fallbackReader.read(null, in);
+    return this.avroData.toConnectData(this.conversion.avroSchema, container).value();
+  }
+
+  static UnsupportedOperationException unsupported(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    return new UnsupportedOperationException(
+        String.format(
+            "Avro type %s cannot be read directly as Connect type %s",
+            avroSchema.getType(),
+            connectSchema.type()
+        )
+    );
+  }
+
+  static void checkType(org.apache.avro.Schema avroSchema, Schema connectSchema, Schema.Type... types) {
+    for (Schema.Type type : types) {
+      if (type == connectSchema.type()) {
+        return;
+      }
+    }
+    throw unsupported(avroSchema, connectSchema);
+  }
+
+  static ValueReader compile(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    final String logicalName = connectSchema.name();
+    final ValueReader result;
+
+    switch (avroSchema.getType()) {
+      case RECORD:
+        checkType(avroSchema, connectSchema, Schema.Type.STRUCT);
+        result = compileRecord(avroSchema, connectSchema);
+        break;
+      case UNION:
+        result = compileUnion(avroSchema, connectSchema);
+        break;
+      case ARRAY:
+        checkType(avroSchema, connectSchema, Schema.Type.ARRAY);
+        result = compileArray(avroSchema, connectSchema);
+        break;
+      case MAP:
+        checkType(avroSchema, connectSchema, Schema.Type.MAP);
+        result = compileMap(avroSchema, connectSchema);
+        break;
+      case ENUM:
+        checkType(avroSchema, connectSchema, Schema.Type.STRING);
+        final List<String> symbols = avroSchema.getEnumSymbols();
+        result = in -> symbols.get(in.readEnum());
+        break;
+      case FIXED:
+        checkType(avroSchema, connectSchema, Schema.Type.BYTES);
+        final int fixedSize = avroSchema.getFixedSize();
+        if (Decimal.LOGICAL_NAME.equals(logicalName)) {
+          result = in -> {
+            byte[] buffer = new byte[fixedSize];
+            in.readFixed(buffer);
+            return Decimal.toLogical(connectSchema, buffer);
+          };
+        } else {
+          result = in -> {
+            byte[] buffer = new byte[fixedSize];
+            in.readFixed(buffer);
+            return ByteBuffer.wrap(buffer);
+          };
+        }
+        break;
+      case BYTES:
+        checkType(avroSchema, connectSchema, Schema.Type.BYTES);
+        if (Decimal.LOGICAL_NAME.equals(logicalName)) {
+          result = in -> {
+            ByteBuffer buffer = in.readBytes(null);
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return Decimal.toLogical(connectSchema, bytes);
+          };
+        } else {
+          result = in -> in.readBytes(null);
+        }
+        break;
+      case STRING:
+        checkType(avroSchema, connectSchema, Schema.Type.STRING);
+        result = Decoder::readString;
+        break;
+      case INT:
+        checkType(avroSchema, connectSchema, Schema.Type.INT8, Schema.Type.INT16, Schema.Type.INT32);
+        if (Date.LOGICAL_NAME.equals(logicalName)) {
+          result = in -> Date.toLogical(connectSchema, in.readInt());
+        } else if (Time.LOGICAL_NAME.equals(logicalName)) {
+          result = in -> Time.toLogical(connectSchema, in.readInt());
+        } else if (Schema.Type.INT8 == connectSchema.type()) {
+          result = in -> (byte) in.readInt();
+        } else if (Schema.Type.INT16 == connectSchema.type()) {
+          result = in -> (short) in.readInt();
+        } else {
+          result = Decoder::readInt;
+        }
+        break;
+      case LONG:
+        checkType(avroSchema, connectSchema, Schema.Type.INT64);
+        if (Timestamp.LOGICAL_NAME.equals(logicalName)) {
+          result = in -> Timestamp.toLogical(connectSchema, in.readLong());
+        } else {
+          result = Decoder::readLong;
+        }
+        break;
+      case FLOAT:
+        checkType(avroSchema, connectSchema, Schema.Type.FLOAT32);
+        result = Decoder::readFloat;
+        break;
+      case DOUBLE:
+        checkType(avroSchema, connectSchema, Schema.Type.FLOAT64);
+        result = Decoder::readDouble;
+        break;
+      case BOOLEAN:
+        checkType(avroSchema, connectSchema, Schema.Type.BOOLEAN);
+        result = Decoder::readBoolean;
+        break;
+      case NULL:
+        result = in -> {
+          in.readNull();
+          return null;
+        };
+        break;
+      default:
+        throw unsupported(avroSchema, connectSchema);
+    }
+
+    return result;
+  }
+
+  static ValueReader compileRecord(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    final List<org.apache.avro.Schema.Field> avroFields = avroSchema.getFields();
+    final Field[] fields = new Field[avroFields.size()];
+    final ValueReader[] readers = new ValueReader[avroFields.size()];
+
+    for (int i = 0; i < avroFields.size(); i++) {
+      final org.apache.avro.Schema.Field avroField = avroFields.get(i);
+      final Field field = connectSchema.field(avroField.name());
+      if (null == field) {
+        throw unsupported(avroField.schema(), connectSchema);
+      }
+      fields[i] = field;
+      readers[i] = compile(avroField.schema(), field.schema());
+    }
+
+    return in -> {
+      Struct struct = new Struct(connectSchema);
+      for (int i = 0; i < readers.length; i++) {
+        struct.put(fields[i], readers[i].read(in));
+      }
+      return struct;
+    };
+  }
+
+  static ValueReader compileUnion(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    final List<org.apache.avro.Schema> types = avroSchema.getTypes();
+
+    /*
+    AvroData maps a union of null and one other type to an optional field. Every other union is
+    mapped to a struct which is left to the fallback path.
+     */
+    if (2 != types.size() || !connectSchema.isOptional()) {
+      throw unsupported(avroSchema, connectSchema);
+    }
+
+    final ValueReader[] readers = new ValueReader[types.size()];
+    boolean hasNull = false;
+    for (int i = 0; i < types.size(); i++) {
+      final org.apache.avro.Schema type = types.get(i);
+      if (org.apache.avro.Schema.Type.NULL == type.getType()) {
+        hasNull = true;
+        readers[i] = in -> {
+          in.readNull();
+          return null;
+        };
+      } else {
+        readers[i] = compile(type, connectSchema);
+      }
+    }
+
+    if (!hasNull) {
+      throw unsupported(avroSchema, connectSchema);
+    }
+
+    return in -> readers[in.readIndex()].read(in);
+  }
+
+  static ValueReader compileArray(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    final ValueReader elementReader = compile(avroSchema.getElementType(), connectSchema.valueSchema());
+
+    return in -> {
+      long count = in.readArrayStart();
+      List<Object> result = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+      while (count > 0) {
+        for (long i = 0; i < count; i++) {
+          result.add(elementReader.read(in));
+        }
+        count = in.arrayNext();
+      }
+      return result;
+    };
+  }
+
+  static ValueReader compileMap(org.apache.avro.Schema avroSchema, Schema connectSchema) {
+    if (Schema.Type.STRING != connectSchema.keySchema().type()) {
+      throw unsupported(avroSchema, connectSchema);
+    }
+    final ValueReader valueReader = compile(avroSchema.getValueType(), connectSchema.valueSchema());
+
+    return in -> {
+      long count = in.readMapStart();
+      Map<String, Object> result = new HashMap<>();
+      while (count > 0) {
+        for (long i = 0; i < count; i++) {
+          String key = in.readString();
+          result.put(key, valueReader.read(in));
+        }
+        count = in.mapNext();
+      }
+      return result;
+    };
+  }
+}
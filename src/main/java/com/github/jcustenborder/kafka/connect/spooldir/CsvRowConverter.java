@@ -0,0 +1,109 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.github.jcustenborder.kafka.connect.utils.data.type.TypeParser;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Column layout of a CSV file resolved against a key and value schema. The fields are looked up
+ * once so each row only has to index into the arrays.
+ */
+class CsvRowConverter {
+  final Schema keySchema;
+  final Schema valueSchema;
+  final String[] fieldNames;
+  final Field[] valueFields;
+  final Field[] keyFields;
+  final TypeParser[] fieldParsers;
+
+  CsvRowConverter(Schema keySchema, Schema valueSchema, String[] fieldNames, Function<Schema, TypeParser> fieldParser) {
+    this.keySchema = keySchema;
+    this.valueSchema = valueSchema;
+    this.fieldNames = fieldNames;
+    this.valueFields = new Field[fieldNames.length];
+    this.keyFields = new Field[fieldNames.length];
+    this.fieldParsers = new TypeParser[fieldNames.length];
+    for (int i = 0; i < fieldNames.length; i++) {
+      this.valueFields[i] = valueSchema.field(fieldNames[i]);
+      this.keyFields[i] = keySchema.field(fieldNames[i]);
+      if (null != this.valueFields[i]) {
+        this.fieldParsers[i] = fieldParser.apply(this.valueFields[i].schema());
+      }
+    }
+  }
+
+  /**
+   * Method is used to determine if every column is a field of the schema.
+   *
+   * @param schema     schema to check.
+   * @param fieldNames columns of the file.
+   * @return true if the schema has a field for every column.
+   */
+  static boolean covers(Schema schema, String[] fieldNames) {
+    if (null == schema) {
+      return false;
+    }
+    for (String fieldName : fieldNames) {
+      if (null == fieldName || null == schema.field(fieldName)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Method is used to build a converter for a file with columns that are not in the configured
+   * schema. Every column is an optional string.
+   *
+   * @param config     config of the task.
+   * @param fieldNames columns of the file.
+   * @return converter for the file.
+   */
+  static CsvRowConverter derive(SpoolDirCsvSourceConnectorConfig config, String[] fieldNames) {
+    final SchemaBuilder keySchemaBuilder = SchemaBuilder.struct()
+        .name(config.schemaGenerationKeyName);
+    final SchemaBuilder valueSchemaBuilder = SchemaBuilder.struct()
+        .name(config.schemaGenerationValueName);
+    final List<String> columns = Arrays.asList(fieldNames);
+    for (String keyField : config.keyFields) {
+      if (columns.contains(keyField)) {
+        keySchemaBuilder.field(keyField, Schema.OPTIONAL_STRING_SCHEMA);
+      }
+    }
+    for (String fieldName : fieldNames) {
+      valueSchemaBuilder.field(fieldName, Schema.OPTIONAL_STRING_SCHEMA);
+    }
+    return new CsvRowConverter(keySchemaBuilder.build(), valueSchemaBuilder.build(), fieldNames, schema -> null);
+  }
+
+  /**
+   * Method is used to create the key that converters are cached by.
+   *
+   * @param fieldNames columns of the file.
+   * @return list that can be used as a map key.
+   */
+  static List<String> signature(String[] fieldNames) {
+    return Collections.unmodifiableList(Arrays.asList(fieldNames.clone()));
+  }
+}
@@ -19,17 +19,27 @@ import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.ICSVParser;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.errors.DataException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 public class CsvSchemaGenerator extends AbstractSchemaGenerator<SpoolDirCsvSourceConnectorConfig> {
   private static final Logger log = LoggerFactory.getLogger(CsvSchemaGenerator.class);
+  /**
+   * Seed for the reservoir sample so the same file always generates the same schema.
+   */
+  static final long SAMPLE_SEED = 8675309L;
 
   public CsvSchemaGenerator(Map<String, ?> settings) {
     super(settings);
@@ -70,5 +80,116 @@ public class CsvSchemaGenerator extends AbstractSchemaGenerator<SpoolDirCsvSourc
     return typeMap;
   }
 
+  @Override
+  protected String header(InputStream inputStream) throws IOException {
+    ICSVParser parserBuilder = this.config.createCSVParserBuilder();
+    try (InputStreamReader reader = new InputStreamReader(inputStream, this.config.charset)) {
+      CSVReaderBuilder readerBuilder = this.config.createCSVReaderBuilder(reader, parserBuilder);
+      try (CSVReader csvReader = readerBuilder.build()) {
+        final String[] row = csvReader.readNext();
+        if (null == row) {
+          return "";
+        }
+        return this.config.firstRowAsHeader ? String.join("\n", row) : Integer.toString(row.length);
+      }
+    }
+  }
+
+  static String[] readNext(CSVReader csvReader, long rowCount) throws IOException {
+    try {
+      return csvReader.readNext();
+    } catch (IOException ex) {
+      if (0 == rowCount) {
+        throw ex;
+      }
+      log.debug("readNext() - Stopping at a row that could not be read. The probe may have been truncated.", ex);
+      return null;
+    }
+  }
+
+  @Override
+  protected Map<String, Schema> determineFieldSchemas(InputStream inputStream) throws IOException {
+    if (!this.config.inferTypes) {
+      return super.determineFieldSchemas(inputStream);
+    }
+
+    final int sampleSize = this.config.schemaGenerationSampleSize;
+    final List<String[]> sample = new ArrayList<>(Math.min(sampleSize, 1024));
+    String[] headers = null;
+    long rowCount = 0;
+    // Nullability is tracked over every row read, the sample is only used for the types.
+    boolean[] nullable = new boolean[0];
+    int shortestRow = Integer.MAX_VALUE;
+
+    ICSVParser parserBuilder = this.config.createCSVParserBuilder();
+    try (InputStreamReader reader = new InputStreamReader(inputStream, this.config.charset)) {
+      CSVReaderBuilder readerBuilder = this.config.createCSVReaderBuilder(reader, parserBuilder);
+      try (CSVReader csvReader = readerBuilder.build()) {
+        if (this.config.firstRowAsHeader) {
+          headers = csvReader.readNext();
+        }
+
+        final Random random = new Random(SAMPLE_SEED);
+        String[] row;
+        while (null != (row = readNext(csvReader, rowCount))) {
+          if (row.length == 1 && null == row[0]) {
+            continue;
+          }
+          rowCount++;
+          if (row.length > nullable.length) {
+            nullable = Arrays.copyOf(nullable, row.length);
+          }
+          for (int i = 0; i < row.length; i++) {
+            if (null == row[i] || row[i].isEmpty()) {
+              nullable[i] = true;
+            }
+          }
+          shortestRow = Math.min(shortestRow, row.length);
+          if (sample.size() < sampleSize) {
+            sample.add(row);
+          } else {
+            final long index = (long) (random.nextDouble() * rowCount);
+            if (index < sampleSize) {
+              sample.set((int) index, row);
+            }
+          }
+        }
+      }
+    }
+    log.debug("determineFieldSchemas() - Sampled {} of {} row(s).", sample.size(), rowCount);
+
+    if (null == headers) {
+      if (sample.isEmpty()) {
+        throw new DataException("Could not determine the columns because the file does not contain any rows.");
+      }
+      final int columnCount = sample.get(0).length;
+      headers = new String[columnCount];
+      for (int i = 1; i <= columnCount; i++) {
+        headers[(i - 1)] = String.format("column%02d", i);
+      }
+    }
 
+    final boolean[] nulls = nullable;
+    final int columnsInEveryRow = shortestRow;
+    final Schema[] schemas = IntStream.range(0, headers.length)
+        .parallel()
+        .mapToObj(column -> {
+          FieldTypeInference inference = new FieldTypeInference(this.config.parserTimestampDateFormats);
+          for (String[] row : sample) {
+            inference.accept(column < row.length ? row[column] : null);
+          }
+          if (column >= columnsInEveryRow || (column < nulls.length && nulls[column])) {
+            inference.nullable();
+          }
+          return inference.schema();
+        })
+        .toArray(Schema[]::new);
+
+    final Map<String, Schema> result = new LinkedHashMap<>();
+    for (int i = 0; i < headers.length; i++) {
+      log.trace("determineFieldSchemas() - {} = {}", headers[i], schemas[i]);
+      result.put(headers[i], schemas[i]);
+    }
+    return result;
+  }
 }
@@ -0,0 +1,210 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Waits between polls that did not find a file. The wait doubles after each empty poll, from
+ * empty.poll.wait.ms up to empty.poll.wait.max.ms, with random jitter so tasks do not scan in
+ * step. If input.path.watch.enabled is set the wait ends as soon as a file is created in the input
+ * path.
+ */
+class EmptyPollWait implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(EmptyPollWait.class);
+  /**
+   * Keeps the shift from overflowing.
+   */
+  static final int MAX_ATTEMPTS = 30;
+
+  final long minWaitMs;
+  final long maxWaitMs;
+  final boolean recursive;
+  final String processingFileExtension;
+  final Random random;
+  WatchService watchService;
+  int attempts;
+
+  EmptyPollWait(long minWaitMs, long maxWaitMs, File inputPath, boolean watch, boolean recursive, String processingFileExtension) {
+    this(minWaitMs, maxWaitMs, inputPath, watch, recursive, processingFileExtension, new Random());
+  }
+
+  /**
+   * Constructor is only used for testing.
+   */
+  EmptyPollWait(long minWaitMs, long maxWaitMs, File inputPath, boolean watch, boolean recursive, String processingFileExtension, Random random) {
+    this.minWaitMs = minWaitMs;
+    this.maxWaitMs = maxWaitMs;
+    this.recursive = recursive;
+    this.processingFileExtension = processingFileExtension;
+    this.random = random;
+
+    if (watch) {
+      try {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        register(inputPath.toPath());
+      } catch (IOException ex) {
+        log.warn("Could not watch {}. Falling back to polling.", inputPath, ex);
+        close();
+      }
+    }
+  }
+
+  static EmptyPollWait create(AbstractSourceConnectorConfig config) {
+    return new EmptyPollWait(
+        config.emptyPollWaitMs,
+        config.emptyPollWaitMaxMs,
+        config.inputPath,
+        config.inputPathWatchEnabled,
+        config.inputPathWalkRecursively,
+        config.processingFileExtension
+    );
+  }
+
+  private void register(Path path) throws IOException {
+    if (this.recursive) {
+      try (Stream<Path> directories = Files.walk(path)) {
+        for (Path directory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+          directory.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE);
+        }
+      }
+    } else {
+      path.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE);
+    }
+  }
+
+  /**
+   * @return the time to wait in milliseconds for the next empty poll.
+   */
+  long nextWaitMs() {
+    if (this.maxWaitMs <= this.minWaitMs) {
+      return this.minWaitMs;
+    }
+    final int shift = Math.min(this.attempts, MAX_ATTEMPTS);
+    final long ceiling = this.minWaitMs > (this.maxWaitMs >> shift) ? this.maxWaitMs : this.minWaitMs << shift;
+    final long half = ceiling / 2;
+    return half + (long) (this.random.nextDouble() * (ceiling - half));
+  }
+
+  /**
+   * Waits after an empty poll.
+   *
+   * @return true if the wait ended because a file was created.
+   * @throws InterruptedException thrown if the thread was interrupted.
+   */
+  boolean await() throws InterruptedException {
+    final long waitMs = nextWaitMs();
+    if (this.attempts < MAX_ATTEMPTS) {
+      this.attempts++;
+    }
+    log.trace("await() - Waiting {} ms.", waitMs);
+
+    if (null == this.watchService) {
+      Thread.sleep(waitMs);
+      return false;
+    }
+
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMs);
+    try {
+      long remaining;
+      while ((remaining = deadline - System.nanoTime()) > 0) {
+        WatchKey key = this.watchService.poll(remaining, TimeUnit.NANOSECONDS);
+        boolean created = false;
+        while (null != key) {
+          created |= drain(key);
+          key = this.watchService.poll();
+        }
+        if (created) {
+          log.trace("await() - Woken up by a new file in the input path.");
+          reset();
+          return true;
+        }
+      }
+    } catch (ClosedWatchServiceException ex) {
+      log.trace("await() - Watch service was closed.");
+    }
+    return false;
+  }
+
+  /**
+   * Reads the events of a key and watches new directories.
+   *
+   * @return true if an event could be a new input file. Processing flags and the schema cache
+   * created by the connector itself are ignored.
+   */
+  private boolean drain(WatchKey key) {
+    boolean result = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (StandardWatchEventKinds.OVERFLOW == event.kind()) {
+        result = true;
+        continue;
+      }
+      final Path name = (Path) event.context();
+      final String fileName = name.toString();
+      if (fileName.endsWith(this.processingFileExtension) || GeneratedSchemaCache.isCacheFile(fileName)) {
+        continue;
+      }
+      result = true;
+      if (this.recursive && key.watchable() instanceof Path) {
+        final Path created = ((Path) key.watchable()).resolve(name);
+        if (Files.isDirectory(created)) {
+          try {
+            register(created);
+          } catch (IOException ex) {
+            log.warn("Could not watch {}.", created, ex);
+          }
+        }
+      }
+    }
+    key.reset();
+    return result;
+  }
+
+  /**
+   * Method is used to start the backoff over after a poll returned records.
+   */
+  void reset() {
+    this.attempts = 0;
+  }
+
+  @Override
+  public void close() {
+    if (null != this.watchService) {
+      try {
+        this.watchService.close();
+      } catch (IOException ex) {
+        log.warn("Exception thrown while closing the watch service.", ex);
+      }
+      this.watchService = null;
+    }
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Timestamp;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Class is used to infer the type of a field from a sample of its string values. Every type that a
+ * value cannot be parsed as is removed from the candidates, the narrowest remaining type is the
+ * result. The rules match what {@link com.github.jcustenborder.kafka.connect.utils.data.Parser}
+ * accepts so every sampled value can be parsed with the inferred schema.
+ */
+class FieldTypeInference {
+  static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+  static final int BOOLEAN = 1;
+  static final int INT32 = 1 << 1;
+  static final int INT64 = 1 << 2;
+  static final int FLOAT64 = 1 << 3;
+  static final int DATE = 1 << 4;
+  static final int TIMESTAMP = 1 << 5;
+  static final int ALL = BOOLEAN | INT32 | INT64 | FLOAT64 | DATE | TIMESTAMP;
+
+  static final Pattern INTEGER_PATTERN = Pattern.compile("^-?(0|[1-9]\\d*)$");
+  static final Pattern DECIMAL_PATTERN = Pattern.compile("^-?(0|[1-9]\\d*)(\\.\\d+)?([eE][-+]?\\d+)?$");
+
+  private final SimpleDateFormat[] dateFormats;
+  private int candidates = ALL;
+  private boolean nullable;
+  private long count;
+
+  /**
+   * @param dateFormats formats used to match dates and timestamps. The formats are copied because
+   *                    SimpleDateFormat is not thread safe.
+   */
+  FieldTypeInference(SimpleDateFormat[] dateFormats) {
+    this.dateFormats = new SimpleDateFormat[dateFormats.length];
+    for (int i = 0; i < dateFormats.length; i++) {
+      this.dateFormats[i] = (SimpleDateFormat) dateFormats[i].clone();
+      this.dateFormats[i].setLenient(false);
+    }
+  }
+
+  public void accept(String value) {
+    if (null == value) {
+      this.nullable = true;
+      return;
+    }
+    this.count++;
+
+    if (0 == this.candidates) {
+      return;
+    }
+
+    if ((this.candidates & BOOLEAN) != 0 && !"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+      this.candidates &= ~BOOLEAN;
+    }
+
+    if ((this.candidates & (INT32 | INT64)) != 0) {
+      if (INTEGER_PATTERN.matcher(value).matches()) {
+        try {
+          final long longValue = Long.parseLong(value);
+          if (longValue < Integer.MIN_VALUE || longValue > Integer.MAX_VALUE) {
+            this.candidates &= ~INT32;
+          }
+        } catch (NumberFormatException ex) {
+          this.candidates &= ~(INT32 | INT64);
+        }
+      } else {
+        this.candidates &= ~(INT32 | INT64);
+      }
+    }
+
+    if ((this.candidates & FLOAT64) != 0 && !DECIMAL_PATTERN.matcher(value).matches()) {
+      this.candidates &= ~FLOAT64;
+    }
+
+    if ((this.candidates & (DATE | TIMESTAMP)) != 0) {
+      final java.util.Date date = parseDate(value);
+      if (null == date) {
+        this.candidates &= ~(DATE | TIMESTAMP);
+      } else if (date.getTime() % MILLIS_PER_DAY != 0) {
+        this.candidates &= ~DATE;
+      }
+    }
+  }
+
+  /**
+   * Marks the field as optional. Used for nulls found while scanning rows that were not sampled.
+   */
+  public void nullable() {
+    this.nullable = true;
+  }
+
+  java.util.Date parseDate(String value) {
+    for (SimpleDateFormat dateFormat : this.dateFormats) {
+      final ParsePosition position = new ParsePosition(0);
+      final java.util.Date result = dateFormat.parse(value, position);
+      if (null != result && position.getIndex() == value.length()) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  public Schema schema() {
+    final SchemaBuilder builder;
+
+    if (0 == this.count || 0 == this.candidates) {
+      builder = SchemaBuilder.string();
+    } else if ((this.candidates & BOOLEAN) != 0) {
+      builder = SchemaBuilder.bool();
+    } else if ((this.candidates & INT32) != 0) {
+      builder = SchemaBuilder.int32();
+    } else if ((this.candidates & INT64) != 0) {
+      builder = SchemaBuilder.int64();
+    } else if ((this.candidates & FLOAT64) != 0) {
+      builder = SchemaBuilder.float64();
+    } else if ((this.candidates & DATE) != 0) {
+      builder = Date.builder();
+    } else {
+      builder = Timestamp.builder();
+    }
+
+    if (this.nullable || 0 == this.count) {
+      builder.optional();
+    }
+
+    return builder.build();
+  }
+}
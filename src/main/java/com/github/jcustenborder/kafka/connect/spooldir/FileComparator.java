@@ -30,27 +30,35 @@ class FileComparator implements Comparator<File> {
 
   @Override
   public int compare(File f1, File f2) {
+    return compare(f1.getName(), f1.length(), f1.lastModified(), f2.getName(), f2.length(), f2.lastModified());
+  }
+
+  /**
+   * Compares files by attributes that were read ahead of time, so a sort does not stat the same
+   * file more than once.
+   */
+  int compare(String name1, long length1, long lastModified1, String name2, long length2, long lastModified2) {
     ComparisonChain chain = ComparisonChain.start();
 
     for (AbstractSourceConnectorConfig.FileAttribute fileAttribute : this.attributes) {
       switch (fileAttribute) {
         case NameAsc:
-          chain = chain.compare(f1.getName(), f2.getName());
+          chain = chain.compare(name1, name2);
           break;
         case NameDesc:
-          chain = chain.compare(f2.getName(), f1.getName());
+          chain = chain.compare(name2, name1);
           break;
         case LengthAsc: // We prefer larger files first.
-          chain = chain.compare(f1.length(), f2.length());
+          chain = chain.compare(length1, length2);
           break;
         case LengthDesc: // We prefer larger files first.
-          chain = chain.compare(f2.length(), f1.length());
+          chain = chain.compare(length2, length1);
           break;
         case LastModifiedAsc:
-          chain = chain.compare(f1.lastModified(), f2.lastModified());
+          chain = chain.compare(lastModified1, lastModified2);
           break;
         case LastModifiedDesc:
-          chain = chain.compare(f2.lastModified(), f1.lastModified());
+          chain = chain.compare(lastModified2, lastModified1);
           break;
         default:
           throw new UnsupportedOperationException(
@@ -0,0 +1,311 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import org.apache.kafka.common.utils.Time;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Queue of files ordered by an {@link AbstractFilePrioritizer}. A rescan only adds the files that
+ * are new and drops the ones that are gone, so files already queued are not sorted again. When a
+ * maximum wait is set, a file that has been queued for longer than that is read next whatever its
+ * priority, so a steady stream of urgent files cannot hold back the rest forever.
+ * <p>
+ * With fair sharing, each top level sub-directory of the input path (a tenant) has its own heap
+ * and the tenants take turns by weight, so a directory holding a large backlog does not hold back
+ * the others.
+ */
+class FilePriorityQueue extends AbstractQueue<File> {
+  private static final Logger log = LoggerFactory.getLogger(FilePriorityQueue.class);
+  static final Comparator<AbstractFilePrioritizer.Entry> LONGEST_WAITING_FIRST =
+      Comparator.comparingLong((AbstractFilePrioritizer.Entry e) -> e.enqueued)
+          .thenComparingLong(e -> e.lastModified);
+  /**
+   * Tenant of the files directly in the input path, and of every file without fair sharing.
+   */
+  static final String DEFAULT_TENANT = "";
+
+  static class Tenant {
+    final String name;
+    final int weight;
+    final PriorityQueue<AbstractFilePrioritizer.Entry> queue;
+    /**
+     * Number of entries of the tenant that are still queued.
+     */
+    int size;
+    /**
+     * Credit for the smooth weighted round robin.
+     */
+    long current;
+
+    Tenant(String name, int weight, Comparator<AbstractFilePrioritizer.Entry> comparator) {
+      this.name = name;
+      this.weight = weight;
+      this.queue = new PriorityQueue<>(comparator);
+    }
+  }
+
+  final AbstractFilePrioritizer prioritizer;
+  final long maxWaitMs;
+  final Path fairShareInputPath;
+  final Map<String, Integer> fairShareWeights;
+  final Time time;
+  final Map<String, Tenant> tenants = new LinkedHashMap<>();
+  /**
+   * Same entries ordered by the time they were queued. Only used when a maximum wait is set.
+   */
+  final PriorityQueue<AbstractFilePrioritizer.Entry> oldest;
+  /**
+   * Entries that are still queued. Entries that are removed are only flagged and are skipped when
+   * they reach the head of the heaps.
+   */
+  final Map<File, AbstractFilePrioritizer.Entry> entries = new HashMap<>();
+
+  FilePriorityQueue(AbstractFilePrioritizer prioritizer, long maxWaitMs) {
+    this(prioritizer, maxWaitMs, Time.SYSTEM);
+  }
+
+  /**
+   * Constructor is only used for testing.
+   */
+  FilePriorityQueue(AbstractFilePrioritizer prioritizer, long maxWaitMs, Time time) {
+    this(prioritizer, maxWaitMs, null, ImmutableMap.of(), time);
+  }
+
+  /**
+   * @param prioritizer        orders the files of a tenant.
+   * @param maxWaitMs          maximum wait before a file is read ahead of its priority. 0 disables
+   *                           the limit.
+   * @param fairShareInputPath input path the tenants are found under, or null to queue every file
+   *                           in a single heap.
+   * @param fairShareWeights   weight of each tenant. Tenants that are not listed have a weight of 1.
+   * @param time               clock used for the maximum wait.
+   */
+  FilePriorityQueue(AbstractFilePrioritizer prioritizer, long maxWaitMs, File fairShareInputPath, Map<String, Integer> fairShareWeights, Time time) {
+    this.prioritizer = prioritizer;
+    this.maxWaitMs = maxWaitMs;
+    this.fairShareInputPath = null != fairShareInputPath ? fairShareInputPath.toPath() : null;
+    this.fairShareWeights = fairShareWeights;
+    this.time = time;
+    this.oldest = maxWaitMs > 0 ? new PriorityQueue<>(LONGEST_WAITING_FIRST) : null;
+  }
+
+  String tenantOf(File file) {
+    if (null == this.fairShareInputPath) {
+      return DEFAULT_TENANT;
+    }
+    final Path relative = this.fairShareInputPath.relativize(file.toPath().getParent());
+    return relative.toString().isEmpty() ? DEFAULT_TENANT : relative.getName(0).toString();
+  }
+
+  private Tenant tenant(String name) {
+    return this.tenants.computeIfAbsent(
+        name,
+        n -> new Tenant(n, this.fairShareWeights.getOrDefault(n, 1), this.prioritizer)
+    );
+  }
+
+  @Override
+  public boolean add(File file) {
+    return offer(file);
+  }
+
+  /**
+   * Queues a file unless it is already queued.
+   */
+  @Override
+  public boolean offer(File file) {
+    if (this.entries.containsKey(file)) {
+      return false;
+    }
+    final AbstractFilePrioritizer.Entry entry = this.prioritizer.entry(file);
+    entry.tenant = tenantOf(file);
+    entry.enqueued = this.time.milliseconds();
+    final Tenant tenant = tenant(entry.tenant);
+    this.entries.put(file, entry);
+    tenant.queue.add(entry);
+    tenant.size++;
+    if (null != this.oldest) {
+      this.oldest.add(entry);
+    }
+    return true;
+  }
+
+  /**
+   * Drops the queued files that are not in the latest scan.
+   *
+   * @param files files found by the latest scan.
+   * @return true if any file was dropped.
+   */
+  @Override
+  public boolean retainAll(Collection<?> files) {
+    boolean result = false;
+    final Iterator<AbstractFilePrioritizer.Entry> iterator = this.entries.values().iterator();
+    while (iterator.hasNext()) {
+      final AbstractFilePrioritizer.Entry entry = iterator.next();
+      if (!files.contains(entry.file)) {
+        iterator.remove();
+        removed(entry);
+        result = true;
+      }
+    }
+    for (Tenant tenant : this.tenants.values()) {
+      compact(tenant.queue, tenant.size);
+    }
+    if (null != this.oldest) {
+      compact(this.oldest, this.entries.size());
+    }
+    return result;
+  }
+
+  /**
+   * Flags an entry that left the queue. It stays in the heaps until it reaches their head or is
+   * compacted away.
+   */
+  private void removed(AbstractFilePrioritizer.Entry entry) {
+    entry.removed = true;
+    final Tenant tenant = this.tenants.get(entry.tenant);
+    tenant.size--;
+    if (0 == tenant.size) {
+      // Empty tenants are dropped so they are not visited on every poll and start without credit
+      // when they come back.
+      this.tenants.remove(entry.tenant);
+    }
+  }
+
+  /**
+   * Drops the flagged entries once they make up most of a heap.
+   */
+  private static void compact(PriorityQueue<AbstractFilePrioritizer.Entry> heap, int size) {
+    if (heap.size() > 2 * size) {
+      heap.removeIf(e -> e.removed);
+    }
+  }
+
+  private static AbstractFilePrioritizer.Entry head(PriorityQueue<AbstractFilePrioritizer.Entry> heap) {
+    AbstractFilePrioritizer.Entry result;
+    while (null != (result = heap.peek()) && result.removed) {
+      heap.poll();
+    }
+    return result;
+  }
+
+  /**
+   * Picks the tenant whose turn it is with a smooth weighted round robin. Each tenant with queued
+   * files earns its weight and the one with the most credit goes next, so a tenant with a weight of
+   * 3 is picked three times as often as one with a weight of 1 but not three times in a row.
+   *
+   * @return the tenant or null if the queue is empty.
+   */
+  private Tenant nextTenant() {
+    Tenant result = null;
+    for (Tenant tenant : this.tenants.values()) {
+      if (tenant.size > 0 && (null == result || tenant.current + tenant.weight > result.current + result.weight)) {
+        result = tenant;
+      }
+    }
+    return result;
+  }
+
+  private void turnTaken(Tenant next) {
+    long total = 0;
+    for (Tenant tenant : this.tenants.values()) {
+      if (tenant.size > 0) {
+        tenant.current += tenant.weight;
+        total += tenant.weight;
+      }
+    }
+    next.current -= total;
+  }
+
+  /**
+   * @return the entry that has been queued the longest if it has waited longer than the maximum
+   * wait and is not the next entry anyway, otherwise null.
+   */
+  private AbstractFilePrioritizer.Entry starved(AbstractFilePrioritizer.Entry next) {
+    if (null == this.oldest) {
+      return null;
+    }
+    final AbstractFilePrioritizer.Entry result = head(this.oldest);
+    if (null != result && result != next && this.time.milliseconds() - result.enqueued >= this.maxWaitMs) {
+      return result;
+    }
+    return null;
+  }
+
+  @Override
+  public File poll() {
+    final Tenant tenant = nextTenant();
+    if (null == tenant) {
+      return null;
+    }
+    AbstractFilePrioritizer.Entry result = head(tenant.queue);
+    final AbstractFilePrioritizer.Entry starved = starved(result);
+    if (null != starved) {
+      log.debug("poll() - {} has waited longer than {} ms. Reading it ahead of its priority.", starved.file, this.maxWaitMs);
+      result = starved;
+    } else {
+      turnTaken(tenant);
+    }
+    this.entries.remove(result.file);
+    removed(result);
+    return result.file;
+  }
+
+  @Override
+  public File peek() {
+    final Tenant tenant = nextTenant();
+    if (null == tenant) {
+      return null;
+    }
+    final AbstractFilePrioritizer.Entry result = head(tenant.queue);
+    final AbstractFilePrioritizer.Entry starved = starved(result);
+    return null != starved ? starved.file : result.file;
+  }
+
+  @Override
+  public Iterator<File> iterator() {
+    return Iterators.unmodifiableIterator(this.entries.keySet().iterator());
+  }
+
+  @Override
+  public int size() {
+    return this.entries.size();
+  }
+
+  @Override
+  public void clear() {
+    this.entries.clear();
+    this.tenants.clear();
+    if (null != this.oldest) {
+      this.oldest.clear();
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.Longs;
+import org.apache.kafka.connect.data.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Stores generated schemas in a properties file so they do not need to be generated again when the
+ * connector is restarted. Entries are keyed by a hash of the connector settings and the headers of
+ * the files that were probed, so a change to either one generates the schema again.
+ */
+class GeneratedSchemaCache {
+  private static final Logger log = LoggerFactory.getLogger(GeneratedSchemaCache.class);
+  static final String FILE_NAME = ".spooldir-schema";
+  static final String KEY_SCHEMA_SUFFIX = ".key.schema";
+  static final String VALUE_SCHEMA_SUFFIX = ".value.schema";
+  static final String UPDATED_SUFFIX = ".updated";
+  /**
+   * Number of entries kept in the file. The entries that were written least recently are dropped
+   * first.
+   */
+  static final int MAX_ENTRIES = 32;
+
+  final File file;
+
+  GeneratedSchemaCache(File directory) {
+    this.file = new File(directory, FILE_NAME);
+  }
+
+  /**
+   * Method is used to determine if a file belongs to the cache, so it is never picked up as input.
+   *
+   * @param fileName name of the file.
+   * @return true if the file is the cache or a temporary copy of it.
+   */
+  static boolean isCacheFile(String fileName) {
+    return null != fileName && fileName.startsWith(FILE_NAME);
+  }
+
+  /**
+   * Method is used to calculate the cache key for a set of files.
+   *
+   * @param generator  generator that would create the schema.
+   * @param settings   connector settings.
+   * @param inputFiles files that would be probed.
+   * @return hex encoded hash.
+   * @throws IOException thrown if the header of a file cannot be read.
+   */
+  static String key(AbstractSchemaGenerator<?> generator, Map<String, String> settings, List<File> inputFiles) throws IOException {
+    final Hasher hasher = Hashing.sha256().newHasher();
+    putString(hasher, generator.getClass().getName());
+
+    final Map<String, String> sortedSettings = new TreeMap<>(settings);
+    sortedSettings.remove(AbstractSpoolDirSourceConnectorConfig.KEY_SCHEMA_CONF);
+    sortedSettings.remove(AbstractSpoolDirSourceConnectorConfig.VALUE_SCHEMA_CONF);
+    for (Map.Entry<String, String> kvp : sortedSettings.entrySet()) {
+      putString(hasher, kvp.getKey());
+      putString(hasher, kvp.getValue());
+    }
+
+    final SortedSet<String> headers = new TreeSet<>();
+    for (File inputFile : inputFiles) {
+      headers.add(generator.header(inputFile));
+    }
+    for (String header : headers) {
+      putString(hasher, header);
+    }
+
+    return hasher.hash().toString();
+  }
+
+  private static void putString(Hasher hasher, String value) {
+    final String s = null == value ? "" : value;
+    hasher.putInt(s.length());
+    hasher.putString(s, Charsets.UTF_8);
+  }
+
+  Properties load() throws IOException {
+    final Properties properties = new Properties();
+    if (this.file.isFile()) {
+      try (InputStream inputStream = Files.newInputStream(this.file.toPath())) {
+        properties.load(inputStream);
+      }
+    }
+    return properties;
+  }
+
+  /**
+   * Method is used to read a cached key and value schema.
+   *
+   * @param key cache key returned by {@link #key(AbstractSchemaGenerator, Map, List)}.
+   * @return key and value schema or null if they are not cached.
+   */
+  Map.Entry<Schema, Schema> get(String key) {
+    try {
+      final Properties properties = load();
+      final String keySchema = properties.getProperty(key + KEY_SCHEMA_SUFFIX);
+      final String valueSchema = properties.getProperty(key + VALUE_SCHEMA_SUFFIX);
+      if (null == keySchema || null == valueSchema) {
+        return null;
+      }
+      return new AbstractMap.SimpleEntry<>(
+          ObjectMapperFactory.INSTANCE.readValue(keySchema, Schema.class),
+          ObjectMapperFactory.INSTANCE.readValue(valueSchema, Schema.class)
+      );
+    } catch (IOException ex) {
+      log.warn("Could not read cached schema from {}. Schema will be generated.", this.file, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Method is used to store a key and value schema. The file is written to a temporary file first
+   * and moved into place so a reader never sees a partially written cache. Only the last
+   * {@link #MAX_ENTRIES} schemas written are kept.
+   *
+   * @param key        cache key returned by {@link #key(AbstractSchemaGenerator, Map, List)}.
+   * @param schemaPair key and value schema.
+   * @throws IOException thrown if the cache could not be written.
+   */
+  void put(String key, Map.Entry<Schema, Schema> schemaPair) throws IOException {
+    final Properties properties = load();
+    properties.setProperty(key + KEY_SCHEMA_SUFFIX, ObjectMapperFactory.INSTANCE.writeValueAsString(schemaPair.getKey()));
+    properties.setProperty(key + VALUE_SCHEMA_SUFFIX, ObjectMapperFactory.INSTANCE.writeValueAsString(schemaPair.getValue()));
+    properties.setProperty(key + UPDATED_SUFFIX, Long.toString(System.currentTimeMillis()));
+    evict(properties, MAX_ENTRIES);
+
+    // Each writer gets its own temporary file so tasks writing at the same time do not interleave.
+    final Path tempFile = Files.createTempFile(this.file.getParentFile().toPath(), FILE_NAME, ".tmp");
+    try {
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        properties.store(outputStream, "Schemas generated by the spooldir connector.");
+      }
+      Files.move(
+          tempFile,
+          this.file.toPath(),
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING
+      );
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Method is used to drop the entries that were written least recently until at most maxEntries
+   * are left. Entries written before the write time was recorded are dropped first.
+   *
+   * @param properties cache contents.
+   * @param maxEntries number of entries to keep.
+   */
+  static void evict(Properties properties, int maxEntries) {
+    final Map<String, Long> updated = new HashMap<>();
+    for (String name : properties.stringPropertyNames()) {
+      if (name.endsWith(VALUE_SCHEMA_SUFFIX)) {
+        final String key = name.substring(0, name.length() - VALUE_SCHEMA_SUFFIX.length());
+        final Long value = Longs.tryParse(properties.getProperty(key + UPDATED_SUFFIX, "0"));
+        updated.put(key, null == value ? 0L : value);
+      }
+    }
+    if (updated.size() <= maxEntries) {
+      return;
+    }
+    final List<String> keys = new ArrayList<>(updated.keySet());
+    keys.sort(Comparator.comparing(updated::get));
+    for (String key : keys.subList(0, keys.size() - maxEntries)) {
+      log.trace("evict() - Dropping cached schema {}.", key);
+      properties.remove(key + KEY_SCHEMA_SUFFIX);
+      properties.remove(key + VALUE_SCHEMA_SUFFIX);
+      properties.remove(key + UPDATED_SUFFIX);
+    }
+  }
+}
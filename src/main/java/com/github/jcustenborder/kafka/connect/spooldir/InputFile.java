@@ -16,6 +16,7 @@
 package com.github.jcustenborder.kafka.connect.spooldir;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CountingInputStream;
 import com.google.common.io.Files;
 import org.apache.commons.compress.compressors.CompressorException;
 import org.apache.commons.compress.compressors.CompressorStreamFactory;
@@ -30,15 +31,27 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 public class InputFile implements Closeable {
   private static final Logger log = LoggerFactory.getLogger(InputFile.class);
+  /**
+   * Owner written to processing flags when no other id is given. The process name is pid@host.
+   */
+  static final String DEFAULT_OWNER = ManagementFactory.getRuntimeMXBean().getName();
   private final File file;
   private final File processingFlag;
   private final String name;
@@ -50,7 +63,11 @@ public class InputFile implements Closeable {
   private final String inputPathSubDir;
   InputStreamReader inputStreamReader;
   LineNumberReader lineNumberReader;
+  LineReader lineReader;
   InputStream inputStream;
+  CountingInputStream countingInputStream;
+  boolean claimed;
+  String owner;
 
   InputFile(AbstractSourceConnectorConfig config, File file) {
     this.config = config;
@@ -104,6 +121,13 @@ public class InputFile implements Closeable {
     return this.inputStream;
   }
 
+  /**
+   * @return number of bytes read from the stream after decompression, or 0 if it is not open.
+   */
+  public long bytesRead() {
+    return null != this.countingInputStream ? this.countingInputStream.getCount() : 0L;
+  }
+
   public InputStream openStream() throws IOException {
     if (null != this.inputStream) {
       throw new IOException(
@@ -138,14 +162,156 @@ public class InputFile implements Closeable {
       }
     }
 
+    this.countingInputStream = new CountingInputStream(this.inputStream);
+    this.inputStream = this.countingInputStream;
+
     startProcessing();
 
     return inputStream;
   }
 
+  /**
+   * Method is used to claim the file by creating its processing flag. The flag is created with
+   * CREATE_NEW so when several tasks race for the same file only one of them gets it.
+   *
+   * @return true if this instance holds the flag, false if another task created it first.
+   * @throws IOException thrown if the flag could not be created.
+   */
+  public boolean claim() throws IOException {
+    return claim(DEFAULT_OWNER);
+  }
+
+  /**
+   * Method is used to claim the file by creating its processing flag. The flag is created with
+   * CREATE_NEW so when several tasks race for the same file only one of them gets it.
+   *
+   * @param owner id written to the flag so the owner can be told apart from other tasks.
+   * @return true if this instance holds the flag, false if another task created it first.
+   * @throws IOException thrown if the flag could not be created.
+   */
+  public boolean claim(String owner) throws IOException {
+    if (this.claimed) {
+      return true;
+    }
+    try {
+      java.nio.file.Files.write(
+          this.processingFlag.toPath(),
+          owner.getBytes(StandardCharsets.UTF_8),
+          StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE
+      );
+    } catch (FileAlreadyExistsException ex) {
+      log.debug("claim() - Processing flag {} already exists.", this.processingFlag);
+      return false;
+    }
+    log.info("Created processing flag {}", this.processingFlag);
+    this.owner = owner;
+    this.claimed = true;
+    return true;
+  }
+
+  /**
+   * Method is used to take over a file whose processing flag has not been refreshed within the
+   * lease, for example because the worker that held it died. The stale flag is renamed to a unique
+   * name first so only one of the tasks racing for it can remove it.
+   *
+   * @param owner   id of the new owner.
+   * @param leaseMs time in milliseconds after which a flag that was not refreshed is expired.
+   * @return true if this instance holds the flag.
+   * @throws IOException thrown if the flag could not be replaced.
+   */
+  public boolean reclaim(String owner, long leaseMs) throws IOException {
+    if (this.claimed) {
+      return true;
+    }
+    final long lastModified = this.processingFlag.lastModified();
+    if (0L != lastModified && System.currentTimeMillis() - lastModified < leaseMs) {
+      return false;
+    }
+    return replaceStale(owner, leaseMs, readOwner(this.processingFlag.toPath()));
+  }
+
+  /**
+   * Method is used to replace a flag that was seen expired. Another task may have taken the file
+   * over between the check and the rename, so the renamed flag is checked again and put back if it
+   * turns out to be a fresh one.
+   *
+   * @param owner      id of the new owner.
+   * @param leaseMs    time in milliseconds after which a flag that was not refreshed is expired.
+   * @param staleOwner owner read from the flag when it was seen expired.
+   * @return true if this instance holds the flag.
+   * @throws IOException thrown if the flag could not be replaced.
+   */
+  boolean replaceStale(String owner, long leaseMs, String staleOwner) throws IOException {
+    final Path flag = this.processingFlag.toPath();
+    final Path stale = flag.resolveSibling(
+        String.format("%s.%s%s", flag.getFileName(), UUID.randomUUID(), this.config.processingFileExtension)
+    );
+    try {
+      java.nio.file.Files.move(flag, stale, StandardCopyOption.ATOMIC_MOVE);
+    } catch (NoSuchFileException ex) {
+      log.trace("replaceStale() - {} was removed by another task.", flag);
+      return claim(owner);
+    }
+    final String movedOwner = readOwner(stale);
+    final long movedLastModified = stale.toFile().lastModified();
+    if (!Objects.equals(staleOwner, movedOwner) || System.currentTimeMillis() - movedLastModified < leaseMs) {
+      log.debug("replaceStale() - {} was taken over by '{}' in the meantime. Putting it back.", flag, movedOwner);
+      try {
+        java.nio.file.Files.move(stale, flag);
+      } catch (FileAlreadyExistsException ex) {
+        // Yet another task created a flag. The owner of the moved one finds out on its next
+        // heartbeat and gives the file up.
+        java.nio.file.Files.deleteIfExists(stale);
+      }
+      return false;
+    }
+    log.warn(
+        "Processing flag {} held by '{}' was not refreshed within {} ms. Taking over {}.",
+        this.processingFlag,
+        movedOwner,
+        leaseMs,
+        this.file
+    );
+    java.nio.file.Files.deleteIfExists(stale);
+    return claim(owner);
+  }
+
+  /**
+   * Method is used to refresh the lease on the processing flag. The flag is read first so a file
+   * that was taken over by another task is not refreshed on its behalf.
+   *
+   * @return false if the flag is gone or is held by another owner.
+   */
+  public boolean heartbeat() {
+    if (!this.claimed) {
+      return true;
+    }
+    final String flagOwner = readOwner(this.processingFlag.toPath());
+    if (null == flagOwner || !flagOwner.equals(this.owner)) {
+      log.warn("Processing flag {} is now held by '{}'.", this.processingFlag, flagOwner);
+      return false;
+    }
+    if (!this.processingFlag.setLastModified(System.currentTimeMillis())) {
+      log.warn("Could not refresh processing flag {}.", this.processingFlag);
+    }
+    return true;
+  }
+
+  static String readOwner(Path flag) {
+    try {
+      return new String(java.nio.file.Files.readAllBytes(flag), StandardCharsets.UTF_8);
+    } catch (IOException ex) {
+      return null;
+    }
+  }
+
   public void startProcessing() throws IOException {
-    log.info("Creating processing flag {}", this.processingFlag);
-    Files.touch(this.processingFlag);
+    if (!claim()) {
+      throw new IOException(
+          String.format("File %s is already being processed. Found %s.", this.file, this.processingFlag)
+      );
+    }
   }
 
   public InputStreamReader openInputStreamReader(Charset charset) throws IOException {
@@ -174,6 +340,21 @@ public class InputFile implements Closeable {
     return this.lineNumberReader;
   }
 
+  LineReader openLineReader() throws IOException {
+    if (null == this.lineReader) {
+      InputStream inputStream = null != this.inputStream ? this.inputStream : openStream();
+      this.lineReader = new LineReader(
+          inputStream,
+          this.config.bufferedInputStream ? this.config.fileBufferSizeBytes : LineReader.DEFAULT_BUFFER_SIZE
+      );
+    }
+    return this.lineReader;
+  }
+
+  LineReader lineReader() {
+    return this.lineReader;
+  }
+
 
   @Override
   public String toString() {
@@ -185,6 +366,9 @@ public class InputFile implements Closeable {
     if (null != this.lineNumberReader) {
       this.lineNumberReader.close();
     }
+    if (null != this.lineReader) {
+      this.lineReader.close();
+    }
     if (null != this.inputStreamReader) {
       this.inputStreamReader.close();
     }
@@ -192,7 +376,12 @@ public class InputFile implements Closeable {
       log.info("Closing {}", this.file);
       this.inputStream.close();
     }
-    if (this.processingFlag.exists()) {
+    if (this.claimed && this.processingFlag.exists()) {
+      final String flagOwner = readOwner(this.processingFlag.toPath());
+      if (null != flagOwner && !flagOwner.equals(this.owner)) {
+        log.warn("Processing flag {} was taken over by '{}'. Leaving it in place.", this.processingFlag, flagOwner);
+        return;
+      }
       log.info("Removing processing flag {}", this.processingFlag);
       if (!this.processingFlag.delete()) {
         log.warn("Could not remove processing flag {}", this.processingFlag);
@@ -15,102 +15,257 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir;
 
-import com.google.common.collect.ForwardingDeque;
+import com.google.common.collect.ForwardingQueue;
 import com.google.common.io.PatternFilenameFilter;
 import org.apache.kafka.common.utils.Time;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class InputFileDequeue extends ForwardingDeque<InputFile> {
+/**
+ * Queue of the files found by the scans of the input path. Only the file handles are queued.
+ * The {@link InputFile} and its {@link Metadata} are created by the task when a file is taken
+ * from the queue, so files that wait in a large backlog do not hold them. The files are ordered by
+ * the {@link AbstractFilePrioritizer} set by files.priority.
+ */
+public class InputFileDequeue extends ForwardingQueue<File> implements Closeable {
   private static final Logger log = LoggerFactory.getLogger(InputFileDequeue.class);
   private final AbstractSourceConnectorConfig config;
-  private final FileComparator fileComparator;
-  private final Predicate<File> processingFileExists;
+  private final AbstractFilePrioritizer prioritizer;
+  private final ProcessingFileExistsPredicate processingFileExists;
   private final Predicate<File> fileMinimumAge;
   private final Predicate<File> filePartitionSelector;
+  private final Time time;
 
 
   public InputFileDequeue(AbstractSourceConnectorConfig config) {
+    this(config, Time.SYSTEM);
+  }
+
+  /**
+   * Constructor is only used for testing.
+   */
+  InputFileDequeue(AbstractSourceConnectorConfig config, Time time) {
     this.config = config;
-    this.fileComparator = new FileComparator(config.fileSortAttributes);
-    this.processingFileExists = new ProcessingFileExistsPredicate(config.processingFileExtension);
+    this.time = time;
+    this.prioritizer = AbstractFilePrioritizer.create(config);
+    this.processingFileExists = new ProcessingFileExistsPredicate(config.processingFileExtension, config.processingFileLeaseMs);
     this.fileMinimumAge = new MinimumFileAgePredicate(config.minimumFileAgeMS);
     this.filePartitionSelector = AbstractTaskPartitionerPredicate.create(config);
+    this.files = new FilePriorityQueue(
+        this.prioritizer,
+        config.filePriorityMaxWaitMs,
+        config.fileFairShareEnabled ? config.inputPath : null,
+        config.fileFairShareWeights,
+        time
+    );
   }
 
-  Deque<InputFile> files;
+  final FilePriorityQueue files;
+  long lastScan;
 
   static File processingFile(String processingFileExtension, File input) {
     String fileName = input.getName() + processingFileExtension;
     return new File(input.getParentFile(), fileName);
   }
 
+  /**
+   * @return true if files are still queued but input.path.rescan.interval.ms has passed since the
+   * last scan.
+   */
+  boolean rescanDue() {
+    return this.config.inputPathRescanIntervalMs > 0
+        && !(this.config.inputPathWalkRecursively && this.config.inputPathWalkWindowSize > 0)
+        && this.time.milliseconds() - this.lastScan >= this.config.inputPathRescanIntervalMs;
+  }
+
   @Override
-  protected Deque<InputFile> delegate() {
-    if (null != files && !files.isEmpty()) {
-      return files;
+  protected Queue<File> delegate() {
+    if (!this.files.isEmpty() && !rescanDue()) {
+      return this.files;
     }
 
     log.trace("delegate() - Searching for file(s) in {}", this.config.inputPath);
+    this.lastScan = this.time.milliseconds();
 
-    final File[] input;
+    if (this.config.inputPathWalkRecursively && this.config.inputPathWalkWindowSize > 0) {
+      nextWindow();
+      return this.files;
+    }
 
-    if (this.config.inputPathWalkRecursively) {
-      final PatternFilenameFilter walkerFilenameFilter = this.config.inputFilenameFilter;
-      Predicate<File> filenameFilterPredicate = file -> walkerFilenameFilter.accept(file.getParentFile(), file.getName());
+    final File[] listing;
 
+    if (this.config.inputPathWalkRecursively && this.config.inputPathWalkParallelism > 1) {
+      if (null == this.crawler) {
+        this.crawler = new ParallelDirectoryCrawler(this.config.inputPathWalkParallelism);
+      }
+      try {
+        listing = this.crawler.list(this.config.inputPath).toArray(new File[0]);
+      } catch (IOException e) {
+        log.error("Unexpected eror walking {}: {}", this.config.inputPath.toPath(), e.getMessage(), e);
+        return this.files;
+      }
+    } else if (this.config.inputPathWalkRecursively) {
       try (Stream<Path> filesWalk = Files.walk(this.config.inputPath.toPath())) {
-        input = filesWalk.map(Path::toFile)
+        listing = filesWalk.map(Path::toFile)
             .filter(File::isFile)
-            .filter(filenameFilterPredicate)
             .toArray(File[]::new);
       } catch (IOException e) {
         log.error("Unexpected eror walking {}: {}", this.config.inputPath.toPath(), e.getMessage(), e);
-        return new ArrayDeque<>();
+        return this.files;
       }
     } else {
-      input = this.config.inputPath.listFiles(this.config.inputFilenameFilter);
+      listing = this.config.inputPath.listFiles();
     }
 
-    if (null == input || input.length == 0) {
+    // The processing flags are in the same listing, so the claimed files are known without a
+    // stat per file.
+    final PatternFilenameFilter filenameFilter = this.config.inputFilenameFilter;
+    final Set<File> processingFiles = new HashSet<>();
+    final List<File> candidates = new ArrayList<>();
+    if (null != listing) {
+      for (File file : listing) {
+        if (file.getName().endsWith(this.config.processingFileExtension)) {
+          processingFiles.add(file);
+        } else if (filenameFilter.accept(file.getParentFile(), file.getName())) {
+          candidates.add(file);
+        }
+      }
+    }
+    this.processingFileExists.processingFiles = processingFiles;
+
+    if (candidates.isEmpty()) {
       log.info("No files matching {} were found in {}", AbstractSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, this.config.inputPath);
-      return new ArrayDeque<>();
+      this.files.clear();
+      return this.files;
     }
-    log.trace("delegate() - Found {} potential file(s).", input.length);
-    this.files = Arrays.stream(input)
+    log.trace("delegate() - Found {} potential file(s).", candidates.size());
+    final Set<File> input = candidates.stream()
+        .filter(f -> !GeneratedSchemaCache.isCacheFile(f.getName()))
         .filter(this.filePartitionSelector)
         .filter(this.processingFileExists)
         .filter(this.fileMinimumAge)
-        .sorted(this.fileComparator)
-        .map(f -> new InputFile(this.config, f))
-        .collect(Collectors.toCollection(ArrayDeque::new));
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    // Files that are still queued keep their entry, only the new ones are added.
+    this.files.retainAll(input);
+    input.forEach(this.files::offer);
     return this.files;
   }
 
 
+  ParallelDirectoryCrawler crawler;
+  InputFileWalker walker;
+  Map<Path, InputFileWalker.CachedDirectory> directoryCache = new HashMap<>();
+
+  /**
+   * Reads the next window of files from the walk into the queue, which is empty at this point. The
+   * window is bounded by input.path.walk.window.size, so the priority applies within a window
+   * rather than across the whole tree.
+   */
+  void nextWindow() {
+    if (null == this.walker) {
+      this.walker = new InputFileWalker(
+          this.config.inputPath,
+          this.config.processingFileExtension,
+          this.config.inputFilenameFilter,
+          this.directoryCache
+      );
+    }
+    final int windowSize = this.config.inputPathWalkWindowSize;
+    this.processingFileExists.processingFiles = this.walker.processingFiles;
+    File file;
+    while (this.files.size() < windowSize && null != (file = this.walker.next())) {
+      if (!GeneratedSchemaCache.isCacheFile(file.getName())
+          && this.filePartitionSelector.test(file)
+          && this.processingFileExists.test(file)
+          && this.fileMinimumAge.test(file)) {
+        this.files.offer(file);
+      }
+    }
+    if (this.walker.complete()) {
+      this.directoryCache = this.walker.nextCache;
+      this.walker = null;
+    }
+    log.trace("nextWindow() - Found {} file(s).", this.files.size());
+  }
+
+  @Override
+  public void close() {
+    if (null != this.crawler) {
+      this.crawler.close();
+      this.crawler = null;
+    }
+  }
+
   static class ProcessingFileExistsPredicate implements Predicate<File> {
     final String processingFileExtension;
+    final long leaseMs;
+    final Time time;
+    /**
+     * Processing flags found by the last scan, or null to check the file system for each file.
+     */
+    Set<File> processingFiles;
 
     ProcessingFileExistsPredicate(String processingFileExtension) {
+      this(processingFileExtension, 0L);
+    }
+
+    /**
+     * @param processingFileExtension extension of the processing flags.
+     * @param leaseMs                 time in milliseconds after which a flag that was not
+     *                                refreshed is expired. 0 never expires a flag.
+     */
+    ProcessingFileExistsPredicate(String processingFileExtension, long leaseMs) {
+      this(processingFileExtension, leaseMs, Time.SYSTEM);
+    }
+
+    /**
+     * Constructor is only used for testing.
+     */
+    ProcessingFileExistsPredicate(String processingFileExtension, long leaseMs, Time time) {
       this.processingFileExtension = processingFileExtension;
+      this.leaseMs = leaseMs;
+      this.time = time;
     }
 
     @Override
     public boolean test(File file) {
       File processingFile = processingFile(this.processingFileExtension, file);
       log.trace("Checking for processing file: {}", processingFile);
-      return !processingFile.exists();
+      final boolean exists;
+      if (null != this.processingFiles) {
+        exists = this.processingFiles.contains(processingFile);
+      } else {
+        exists = processingFile.exists();
+      }
+      if (!exists) {
+        return true;
+      }
+      if (this.leaseMs <= 0) {
+        return false;
+      }
+      final long lastModified = processingFile.lastModified();
+      final boolean expired = 0L != lastModified && this.time.milliseconds() - lastModified >= this.leaseMs;
+      if (expired) {
+        log.info("Processing flag {} has not been refreshed in {} ms. {} can be taken over.", processingFile, this.leaseMs, file);
+      }
+      return expired;
     }
   }
 
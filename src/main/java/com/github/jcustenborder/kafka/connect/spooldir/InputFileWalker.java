@@ -0,0 +1,151 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.io.PatternFilenameFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Walks the input path one directory at a time. Only the entries of the directory being read are
+ * held in memory, so the first files are returned without waiting for the whole tree to be listed.
+ * Directories that held no input files are remembered with their modification time and are not
+ * listed again on the next walk unless they changed.
+ */
+class InputFileWalker {
+  private static final Logger log = LoggerFactory.getLogger(InputFileWalker.class);
+  /**
+   * Directories modified this close to the start of the walk are not cached. Some file systems only
+   * store the modification time in seconds, so a file created right after the listing could leave
+   * it unchanged.
+   */
+  static final long MTIME_GRANULARITY_MS = 2000L;
+
+  static class CachedDirectory {
+    final long lastModified;
+    final List<Path> subdirectories;
+
+    CachedDirectory(long lastModified, List<Path> subdirectories) {
+      this.lastModified = lastModified;
+      this.subdirectories = subdirectories;
+    }
+  }
+
+  final String processingFileExtension;
+  final PatternFilenameFilter inputFilenameFilter;
+  final Map<Path, CachedDirectory> cache;
+  final Map<Path, CachedDirectory> nextCache = new HashMap<>();
+  final long started = System.currentTimeMillis();
+  final Deque<Path> directories = new ArrayDeque<>();
+  /**
+   * Processing flags in the directory being read.
+   */
+  final Set<File> processingFiles = new HashSet<>();
+  Iterator<File> files;
+  int skipped;
+
+  /**
+   * @param inputPath               directory to walk.
+   * @param processingFileExtension extension of the processing flags.
+   * @param inputFilenameFilter     filter for the input files.
+   * @param cache                   directories without input files found by the previous walk.
+   */
+  InputFileWalker(File inputPath, String processingFileExtension, PatternFilenameFilter inputFilenameFilter, Map<Path, CachedDirectory> cache) {
+    this.processingFileExtension = processingFileExtension;
+    this.inputFilenameFilter = inputFilenameFilter;
+    this.cache = cache;
+    this.directories.push(inputPath.toPath());
+  }
+
+  /**
+   * @return the next input file or null once the walk is complete. Files are returned in the
+   * order the file system lists them.
+   */
+  File next() {
+    while (null == this.files || !this.files.hasNext()) {
+      if (this.directories.isEmpty()) {
+        log.trace("next() - Walk complete. Skipped {} unchanged directories.", this.skipped);
+        return null;
+      }
+      this.files = list(this.directories.pop());
+    }
+    return this.files.next();
+  }
+
+  /**
+   * @return true once every directory was read.
+   */
+  boolean complete() {
+    return this.directories.isEmpty() && (null == this.files || !this.files.hasNext());
+  }
+
+  private Iterator<File> list(Path directory) {
+    this.processingFiles.clear();
+    final long lastModified = directory.toFile().lastModified();
+    final CachedDirectory cached = this.cache.get(directory);
+    if (null != cached && cached.lastModified == lastModified) {
+      log.trace("list() - {} has not changed since the last walk.", directory);
+      this.skipped++;
+      this.nextCache.put(directory, cached);
+      cached.subdirectories.forEach(this.directories::push);
+      return null;
+    }
+
+    final List<Path> subdirectories = new ArrayList<>();
+    final List<File> result = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+      for (Path path : stream) {
+        if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+          subdirectories.add(path);
+          continue;
+        }
+        final File file = path.toFile();
+        final String fileName = file.getName();
+        if (fileName.endsWith(this.processingFileExtension)) {
+          this.processingFiles.add(file);
+        } else if (this.inputFilenameFilter.accept(file.getParentFile(), fileName) && file.isFile()) {
+          result.add(file);
+        }
+      }
+    } catch (IOException ex) {
+      log.error("Unexpected error listing {}: {}", directory, ex.getMessage(), ex);
+      return null;
+    }
+    subdirectories.forEach(this.directories::push);
+
+    if (result.isEmpty() && this.processingFiles.isEmpty() && 0L != lastModified
+        && lastModified < this.started - MTIME_GRANULARITY_MS) {
+      this.nextCache.put(directory, new CachedDirectory(lastModified, subdirectories));
+    }
+    return result.iterator();
+  }
+}
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
 import org.apache.kafka.connect.data.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,6 +30,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class JsonSchemaGenerator extends AbstractSchemaGenerator<SpoolDirJsonSourceConnectorConfig> {
+  private static final Logger log = LoggerFactory.getLogger(JsonSchemaGenerator.class);
+
   public JsonSchemaGenerator(Map<String, ?> settings) {
     super(settings);
   }
@@ -58,4 +62,43 @@ public class JsonSchemaGenerator extends AbstractSchemaGenerator<SpoolDirJsonSou
 
     return typeMap;
   }
+
+  @Override
+  protected String header(InputStream inputStream) throws IOException {
+    return String.join("\n", determineFieldTypes(inputStream).keySet());
+  }
+
+  @Override
+  protected Map<String, Schema> determineFieldSchemas(InputStream inputStream) throws IOException {
+    if (!this.config.inferTypes) {
+      return super.determineFieldSchemas(inputStream);
+    }
+
+    final JsonTypeInference inference = new JsonTypeInference(this.config.maxFields, false);
+    int documentCount = 0;
+
+    JsonFactory factory = new JsonFactory();
+    try (JsonParser parser = factory.createParser(inputStream)) {
+      Iterator<JsonNode> iterator = ObjectMapperFactory.INSTANCE.readValues(parser, JsonNode.class);
+      while (documentCount < this.config.schemaGenerationSampleSize && iterator.hasNext()) {
+        final JsonNode node;
+        try {
+          node = iterator.next();
+        } catch (RuntimeException ex) {
+          if (0 == documentCount) {
+            throw ex;
+          }
+          log.debug("determineFieldSchemas() - Stopping at a document that could not be read. The probe may have been truncated.", ex);
+          break;
+        }
+        if (node.isObject()) {
+          inference.accept(node);
+          documentCount++;
+        }
+      }
+    }
+    log.debug("determineFieldSchemas() - Inferred schema from {} document(s).", documentCount);
+
+    return inference.fieldSchemas();
+  }
 }
@@ -0,0 +1,258 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class is used to infer a schema from a stream of json values. Each value is merged into the
+ * running state so memory is bounded by the shape of the documents rather than their count. Objects
+ * that have more than maxFields distinct keys are switched to a map to bound memory further.
+ */
+class JsonTypeInference {
+  private static final Logger log = LoggerFactory.getLogger(JsonTypeInference.class);
+  static final int BOOLEAN = 1;
+  static final int INT32 = 1 << 1;
+  static final int INT64 = 1 << 2;
+  static final int FLOAT64 = 1 << 3;
+  static final int STRING = 1 << 4;
+  static final int OBJECT = 1 << 5;
+  static final int ARRAY = 1 << 6;
+  static final int NUMERIC = INT32 | INT64 | FLOAT64;
+
+  private final int maxFields;
+  private final boolean collapsible;
+  private int kinds;
+  private long count;
+  private long nulls;
+  private long objectCount;
+  private Map<String, JsonTypeInference> fields;
+  private JsonTypeInference values;
+  private JsonTypeInference elements;
+  private boolean ignoredFields;
+
+  /**
+   * @param maxFields   the number of distinct keys an object can have before it becomes a map.
+   * @param collapsible flag to determine if this object can become a map. If false keys past
+   *                    maxFields are ignored.
+   */
+  JsonTypeInference(int maxFields, boolean collapsible) {
+    this.maxFields = maxFields;
+    this.collapsible = collapsible;
+  }
+
+  JsonTypeInference child() {
+    return new JsonTypeInference(this.maxFields, true);
+  }
+
+  public void accept(JsonNode node) {
+    if (null == node || node.isNull() || node.isMissingNode()) {
+      this.nulls++;
+      return;
+    }
+    this.count++;
+
+    switch (node.getNodeType()) {
+      case BOOLEAN:
+        this.kinds |= BOOLEAN;
+        break;
+      case NUMBER:
+        if (node.isIntegralNumber()) {
+          if (node.canConvertToInt()) {
+            this.kinds |= INT32;
+          } else if (node.canConvertToLong()) {
+            this.kinds |= INT64;
+          } else {
+            this.kinds |= FLOAT64;
+          }
+        } else {
+          this.kinds |= FLOAT64;
+        }
+        break;
+      case OBJECT:
+        this.kinds |= OBJECT;
+        acceptObject(node);
+        break;
+      case ARRAY:
+        this.kinds |= ARRAY;
+        if (null == this.elements) {
+          this.elements = child();
+        }
+        for (JsonNode element : node) {
+          this.elements.accept(element);
+        }
+        break;
+      default:
+        this.kinds |= STRING;
+        break;
+    }
+  }
+
+  void acceptObject(JsonNode node) {
+    this.objectCount++;
+    Iterator<Map.Entry<String, JsonNode>> iterator = node.fields();
+
+    if (null != this.values) {
+      while (iterator.hasNext()) {
+        this.values.accept(iterator.next().getValue());
+      }
+      return;
+    }
+
+    if (null == this.fields) {
+      this.fields = new LinkedHashMap<>();
+    }
+    while (iterator.hasNext()) {
+      Map.Entry<String, JsonNode> entry = iterator.next();
+      JsonTypeInference field = null != this.values ? null : field(entry.getKey());
+      if (null != field) {
+        field.accept(entry.getValue());
+      } else if (null != this.values) {
+        this.values.accept(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Returns the state of the field, creating it if needed. Returns null if the object was switched
+   * to a map or the field was ignored because there are too many keys.
+   */
+  JsonTypeInference field(String name) {
+    JsonTypeInference result = this.fields.get(name);
+    if (null == result) {
+      if (this.fields.size() >= this.maxFields) {
+        if (this.collapsible) {
+          toMap();
+        } else if (!this.ignoredFields) {
+          log.warn("field() - Ignoring field '{}' and any other new fields. More than {} distinct keys were found.", name, this.maxFields);
+          this.ignoredFields = true;
+        }
+        return null;
+      }
+      result = child();
+      this.fields.put(name, result);
+    }
+    return result;
+  }
+
+  void toMap() {
+    log.debug("toMap() - Found more than {} distinct keys. Treating the object as a map.", this.maxFields);
+    JsonTypeInference values = child();
+    if (null != this.fields) {
+      for (JsonTypeInference field : this.fields.values()) {
+        values.merge(field);
+      }
+    }
+    this.values = values;
+    this.fields = null;
+  }
+
+  void merge(JsonTypeInference other) {
+    this.kinds |= other.kinds;
+    this.count += other.count;
+    this.nulls += other.nulls;
+    this.objectCount += other.objectCount;
+
+    if (null != other.elements) {
+      if (null == this.elements) {
+        this.elements = child();
+      }
+      this.elements.merge(other.elements);
+    }
+
+    if (null != other.values) {
+      if (null == this.values) {
+        toMap();
+      }
+      this.values.merge(other.values);
+    } else if (null != other.fields) {
+      if (null == this.fields && null == this.values) {
+        this.fields = new LinkedHashMap<>();
+      }
+      for (Map.Entry<String, JsonTypeInference> entry : other.fields.entrySet()) {
+        JsonTypeInference field = null != this.values ? null : field(entry.getKey());
+        if (null != field) {
+          field.merge(entry.getValue());
+        } else if (null != this.values) {
+          this.values.merge(entry.getValue());
+        }
+      }
+    }
+  }
+
+  boolean optional() {
+    return this.nulls > 0 || 0 == this.count;
+  }
+
+  /**
+   * The fields of the object in the order they were first seen.
+   *
+   * @return field name to schema.
+   */
+  public Map<String, Schema> fieldSchemas() {
+    Map<String, Schema> result = new LinkedHashMap<>();
+    if (null != this.fields) {
+      for (Map.Entry<String, JsonTypeInference> entry : this.fields.entrySet()) {
+        final JsonTypeInference field = entry.getValue();
+        final boolean optional = field.optional() || field.count + field.nulls < this.objectCount;
+        result.put(entry.getKey(), field.schema(optional));
+      }
+    }
+    return result;
+  }
+
+  public Schema schema(boolean optional) {
+    final SchemaBuilder builder;
+
+    if (BOOLEAN == this.kinds) {
+      builder = SchemaBuilder.bool();
+    } else if (0 != this.kinds && 0 == (this.kinds & ~NUMERIC)) {
+      if (0 != (this.kinds & FLOAT64)) {
+        builder = SchemaBuilder.float64();
+      } else if (0 != (this.kinds & INT64)) {
+        builder = SchemaBuilder.int64();
+      } else {
+        builder = SchemaBuilder.int32();
+      }
+    } else if (ARRAY == this.kinds) {
+      builder = SchemaBuilder.array(this.elements.schema(this.elements.optional()));
+    } else if (OBJECT == this.kinds && null != this.values) {
+      builder = SchemaBuilder.map(Schema.STRING_SCHEMA, this.values.schema(this.values.optional()));
+    } else if (OBJECT == this.kinds && !this.fields.isEmpty()) {
+      builder = SchemaBuilder.struct();
+      for (Map.Entry<String, Schema> entry : fieldSchemas().entrySet()) {
+        builder.field(entry.getKey(), entry.getValue());
+      }
+    } else if (OBJECT == this.kinds) {
+      builder = SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.OPTIONAL_STRING_SCHEMA);
+    } else {
+      builder = SchemaBuilder.string();
+    }
+
+    if (optional) {
+      builder.optional();
+    }
+    return builder.build();
+  }
+}
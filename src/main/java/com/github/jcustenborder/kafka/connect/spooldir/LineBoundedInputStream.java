@@ -0,0 +1,116 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream that ends at the first line break after a number of bytes have been read. This keeps
+ * the last line whole so a probe of the head of a file parses cleanly. The stream also ends if no
+ * line break is found within maxOverrun bytes of the limit.
+ */
+class LineBoundedInputStream extends FilterInputStream {
+  static final int MAX_OVERRUN = 1024 * 1024;
+  private final int maxOverrun;
+  private long remaining;
+  private int overrun;
+  private boolean ended;
+
+  LineBoundedInputStream(InputStream in, long limit) {
+    this(in, limit, MAX_OVERRUN);
+  }
+
+  LineBoundedInputStream(InputStream in, long limit, int maxOverrun) {
+    super(in);
+    this.remaining = limit;
+    this.maxOverrun = maxOverrun;
+  }
+
+  /**
+   * Flag to determine if the stream ended before the underlying stream.
+   *
+   * @return true if the limit was reached.
+   */
+  public boolean truncated() {
+    return this.ended;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (this.ended) {
+      return -1;
+    }
+    final int result = this.in.read();
+    if (result < 0) {
+      return result;
+    }
+    if (this.remaining > 0) {
+      this.remaining--;
+    } else if ('\n' == result || ++this.overrun >= this.maxOverrun) {
+      this.ended = true;
+    }
+    return result;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (this.ended) {
+      return -1;
+    }
+    if (0 == len) {
+      return 0;
+    }
+    if (this.remaining > 0) {
+      final int result = this.in.read(b, off, (int) Math.min(len, this.remaining));
+      if (result > 0) {
+        this.remaining -= result;
+      }
+      return result;
+    }
+
+    int count = 0;
+    while (count < len && !this.ended) {
+      final int c = read();
+      if (c < 0) {
+        break;
+      }
+      b[off + count] = (byte) c;
+      count++;
+    }
+    return 0 == count ? -1 : count;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = 0;
+    while (skipped < n && read() >= 0) {
+      skipped++;
+    }
+    return skipped;
+  }
+
+  @Override
+  public int available() throws IOException {
+    return this.ended ? 0 : (int) Math.min(this.in.available(), Math.max(this.remaining, 0));
+  }
+
+  @Override
+  public boolean markSupported() {
+    return false;
+  }
+}
@@ -0,0 +1,239 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.base.Preconditions;
+import com.google.common.io.ByteStreams;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Reads lines from a stream without decoding them. Lines end at \n, \r or \r\n like
+ * {@link java.io.LineNumberReader}. The current line can be copied out as bytes or decoded
+ * straight from the buffer, and the reader keeps track of the number of bytes consumed so a file
+ * can be resumed at a line boundary.
+ */
+class LineReader implements Closeable {
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  private final InputStream inputStream;
+  private byte[] buffer;
+  private int position;
+  private int limit;
+  private boolean eof;
+  private int lineStart;
+  private int lineEnd;
+  private long lineNumber;
+  private long offset;
+
+  LineReader(InputStream inputStream) {
+    this(inputStream, DEFAULT_BUFFER_SIZE);
+  }
+
+  LineReader(InputStream inputStream, int bufferSize) {
+    this.inputStream = inputStream;
+    this.buffer = new byte[Math.max(bufferSize, 1)];
+  }
+
+  /**
+   * Method is used to determine if a charset can be decoded a line at a time from the bytes. This
+   * is true for charsets where \n and \r are single bytes, such as UTF-8 and ISO-8859-1, but not
+   * for UTF-16.
+   *
+   * @param charset charset of the file.
+   * @return true if the lines can be split on bytes.
+   */
+  static boolean supports(Charset charset) {
+    return Arrays.equals(new byte[]{'\n'}, "\n".getBytes(charset)) &&
+        Arrays.equals(new byte[]{'\r'}, "\r".getBytes(charset));
+  }
+
+  /**
+   * Method is used to resume a file. Skips the bytes that were already read and sets the counters
+   * as if the lines had been read.
+   *
+   * @param offset     number of bytes to skip. Must be the end of a line.
+   * @param lineNumber number of lines in the skipped bytes.
+   * @throws IOException thrown if the stream could not be skipped.
+   */
+  void seek(long offset, long lineNumber) throws IOException {
+    Preconditions.checkState(0 == this.limit, "seek() must be called before the first line is read.");
+    ByteStreams.skipFully(this.inputStream, offset);
+    this.offset = offset;
+    this.lineNumber = lineNumber;
+  }
+
+  /**
+   * Reads more data into the buffer, moving the unread part to the front or growing the buffer if
+   * a single line does not fit.
+   *
+   * @return false if the end of the stream was reached.
+   */
+  private boolean fill() throws IOException {
+    if (this.eof) {
+      return false;
+    }
+    if (this.lineStart > 0) {
+      System.arraycopy(this.buffer, this.lineStart, this.buffer, 0, this.limit - this.lineStart);
+      this.position -= this.lineStart;
+      this.limit -= this.lineStart;
+      this.lineStart = 0;
+    } else if (this.limit == this.buffer.length) {
+      this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+    }
+    final int read = this.inputStream.read(this.buffer, this.limit, this.buffer.length - this.limit);
+    if (read < 0) {
+      this.eof = true;
+      return false;
+    }
+    this.limit += read;
+    return true;
+  }
+
+  /**
+   * Moves to the next line.
+   *
+   * @return false if there are no more lines.
+   * @throws IOException thrown if the stream could not be read.
+   */
+  boolean next() throws IOException {
+    this.lineStart = this.position;
+    int i = this.position;
+    while (true) {
+      final byte[] buffer = this.buffer;
+      final int limit = this.limit;
+      while (i < limit) {
+        final byte b = buffer[i];
+        if ('\n' == b || '\r' == b) {
+          break;
+        }
+        i++;
+      }
+      if (i < limit) {
+        break;
+      }
+      final int scanned = i - this.lineStart;
+      if (!fill()) {
+        if (this.lineStart == this.limit) {
+          return false;
+        }
+        // Last line without a line break.
+        this.lineEnd = this.limit;
+        this.position = this.limit;
+        this.offset += this.lineEnd - this.lineStart;
+        this.lineNumber++;
+        return true;
+      }
+      i = this.lineStart + scanned;
+    }
+
+    this.lineEnd = i;
+    int next = i + 1;
+    if ('\r' == this.buffer[i]) {
+      if (next == this.limit) {
+        // Make sure a \n that follows in the next read is part of this line break.
+        final int lineLength = this.lineEnd - this.lineStart;
+        fill();
+        this.lineEnd = this.lineStart + lineLength;
+        next = this.lineEnd + 1;
+      }
+      if (next < this.limit && '\n' == this.buffer[next]) {
+        next++;
+      }
+    }
+    this.offset += next - this.lineStart;
+    this.position = next;
+    this.lineNumber++;
+    return true;
+  }
+
+  /**
+   * @return copy of the current line without the line break.
+   */
+  byte[] bytes() {
+    return Arrays.copyOfRange(this.buffer, this.lineStart, this.lineEnd);
+  }
+
+  /**
+   * @param charset charset of the file.
+   * @return the current line without the line break.
+   */
+  String string(Charset charset) {
+    return new String(this.buffer, this.lineStart, this.lineEnd - this.lineStart, charset);
+  }
+
+  /**
+   * Copies the current line without the line break to a stream.
+   *
+   * @param outputStream stream to write to.
+   */
+  void copyTo(ByteArrayOutputStream outputStream) {
+    outputStream.write(this.buffer, this.lineStart, this.lineEnd - this.lineStart);
+  }
+
+  /**
+   * @return number of bytes in the current line without the line break.
+   */
+  int length() {
+    return this.lineEnd - this.lineStart;
+  }
+
+  /**
+   * @return first byte of the current line as an unsigned value or -1 if the line is empty.
+   */
+  int firstByte() {
+    return this.lineEnd > this.lineStart ? this.buffer[this.lineStart] & 0xFF : -1;
+  }
+
+  /**
+   * @param prefix bytes to compare.
+   * @return true if the current line starts with the bytes.
+   */
+  boolean startsWith(byte[] prefix) {
+    if (prefix.length > this.lineEnd - this.lineStart) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (prefix[i] != this.buffer[this.lineStart + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return number of lines read.
+   */
+  long lineNumber() {
+    return this.lineNumber;
+  }
+
+  /**
+   * @return number of bytes read up to and including the line break of the current line.
+   */
+  long offset() {
+    return this.offset;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.inputStream.close();
+  }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Number of bytes the tasks in a worker may hold in batches that have not been written to Kafka
+ * yet. Works like a semaphore counted in bytes. A task reserves space before it reads a batch and
+ * gives it back as the records are committed.
+ */
+class MemoryBudget {
+  private static final Logger log = LoggerFactory.getLogger(MemoryBudget.class);
+  private static MemoryBudget shared;
+
+  final long capacity;
+  private long available;
+
+  MemoryBudget(long capacity) {
+    this.capacity = capacity;
+    this.available = capacity;
+  }
+
+  /**
+   * Returns the budget shared by every task in the JVM. The first task to ask sets the capacity.
+   *
+   * @param capacity capacity in bytes.
+   * @return the shared budget.
+   */
+  static synchronized MemoryBudget shared(long capacity) {
+    if (null == shared) {
+      log.info("shared() - Creating memory budget of {}.", AbstractSourceTask.humanReadableByteCount(capacity, false));
+      shared = new MemoryBudget(capacity);
+    } else if (shared.capacity != capacity) {
+      log.warn(
+          "shared() - Memory budget of {} byte(s) was requested but the worker already uses {} byte(s).",
+          capacity,
+          shared.capacity
+      );
+    }
+    return shared;
+  }
+
+  /**
+   * Reserves bytes, waiting for other tasks to release them if needed. Requests larger than the
+   * capacity are capped at the capacity so a single large file can still be read on its own.
+   *
+   * @param bytes     number of bytes.
+   * @param timeoutMs maximum time to wait.
+   * @return number of bytes reserved or -1 if the bytes were not available in time.
+   * @throws InterruptedException thrown if the thread was interrupted while waiting.
+   */
+  synchronized long tryAcquire(long bytes, long timeoutMs) throws InterruptedException {
+    final long requested = Math.max(0L, Math.min(bytes, this.capacity));
+    final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    while (this.available < requested) {
+      final long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return -1L;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    this.available -= requested;
+    return requested;
+  }
+
+  /**
+   * Reserves bytes without waiting. Used when a batch turned out larger than what was reserved
+   * for it. The budget can go below zero, which makes other tasks wait.
+   *
+   * @param bytes number of bytes.
+   */
+  synchronized void acquire(long bytes) {
+    this.available -= bytes;
+  }
+
+  /**
+   * @param bytes number of bytes to give back.
+   */
+  synchronized void release(long bytes) {
+    if (bytes <= 0) {
+      return;
+    }
+    this.available += bytes;
+    notifyAll();
+  }
+
+  synchronized long available() {
+    return this.available;
+  }
+}
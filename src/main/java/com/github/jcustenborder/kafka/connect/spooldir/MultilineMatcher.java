@@ -0,0 +1,210 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Decides if a line matches the multiline pattern. The common shapes of pattern, a literal prefix
+ * such as {@code ^\[} or a leading character class such as {@code ^\s}, are checked without the
+ * regex engine and against the undecoded bytes of the line when possible. Everything else uses
+ * {@link Matcher#find()}.
+ */
+abstract class MultilineMatcher {
+  static final String WHITESPACE = " \t\n\u000B\f\r";
+  static final String DIGITS = "0123456789";
+  static final String INDENT = " \t";
+  static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  final Charset charset;
+
+  MultilineMatcher(Charset charset) {
+    this.charset = charset;
+  }
+
+  /**
+   * @param line line without the line break.
+   * @return true if the line matches.
+   */
+  abstract boolean matches(String line);
+
+  /**
+   * @param reader reader positioned on the line.
+   * @return true if the current line of the reader matches.
+   */
+  boolean matches(LineReader reader) {
+    return matches(reader.string(this.charset));
+  }
+
+  /**
+   * Creates a matcher for lines that start with a space or a tab.
+   */
+  static MultilineMatcher indent(Charset charset) {
+    return new LeadingCharacter(charset, INDENT);
+  }
+
+  /**
+   * Creates a matcher for a pattern, using a check that does not need the regex engine if the
+   * pattern allows it.
+   */
+  static MultilineMatcher of(Pattern pattern, Charset charset) {
+    final String regex = pattern.pattern();
+    if (0 == pattern.flags()) {
+      if (regex.startsWith("^")) {
+        final String leading = leadingCharacters(regex.substring(1));
+        if (null != leading) {
+          return new LeadingCharacter(charset, leading);
+        }
+        final String prefix = literal(regex.substring(1));
+        if (null != prefix && !prefix.isEmpty()) {
+          return new Prefix(charset, prefix);
+        }
+      } else {
+        final String literal = literal(regex);
+        if (null != literal && !literal.isEmpty()) {
+          return new Contains(charset, literal);
+        }
+      }
+    }
+    return new Regex(charset, pattern);
+  }
+
+  /**
+   * Returns the characters a line must start with for patterns like {@code \s}, {@code \d+} or
+   * {@code [ \t]}, or null if the pattern is something else.
+   */
+  static String leadingCharacters(String regex) {
+    String body = regex.endsWith("+") ? regex.substring(0, regex.length() - 1) : regex;
+    switch (body) {
+      case "\\s":
+        return WHITESPACE;
+      case "\\d":
+        return DIGITS;
+      case "[ \\t]":
+      case "[\\t ]":
+      case "[ \t]":
+      case "[\t ]":
+        return INDENT;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns the text a pattern matches if it has no metacharacters other than escaped ones, or
+   * null if it does.
+   */
+  static String literal(String regex) {
+    final StringBuilder builder = new StringBuilder(regex.length());
+    for (int i = 0; i < regex.length(); i++) {
+      char c = regex.charAt(i);
+      if ('\\' == c) {
+        if (i + 1 == regex.length()) {
+          return null;
+        }
+        c = regex.charAt(++i);
+        if (METACHARACTERS.indexOf(c) < 0) {
+          // Classes like \s or \d and escapes like \Q.
+          return null;
+        }
+      } else if (METACHARACTERS.indexOf(c) >= 0) {
+        return null;
+      }
+      builder.append(c);
+    }
+    return builder.toString();
+  }
+
+  static class LeadingCharacter extends MultilineMatcher {
+    final String characters;
+    final boolean bytes;
+
+    LeadingCharacter(Charset charset, String characters) {
+      super(charset);
+      this.characters = characters;
+      this.bytes = LineReader.supports(charset);
+    }
+
+    @Override
+    boolean matches(String line) {
+      return !line.isEmpty() && this.characters.indexOf(line.charAt(0)) >= 0;
+    }
+
+    @Override
+    boolean matches(LineReader reader) {
+      if (!this.bytes) {
+        return super.matches(reader);
+      }
+      // The characters are ASCII and encoded as one byte by the charsets LineReader supports.
+      final int b = reader.firstByte();
+      return b >= 0 && this.characters.indexOf((char) b) >= 0;
+    }
+  }
+
+  static class Prefix extends MultilineMatcher {
+    final String prefix;
+    final byte[] prefixBytes;
+
+    Prefix(Charset charset, String prefix) {
+      super(charset);
+      this.prefix = prefix;
+      this.prefixBytes = LineReader.supports(charset) ? prefix.getBytes(charset) : null;
+    }
+
+    @Override
+    boolean matches(String line) {
+      return line.startsWith(this.prefix);
+    }
+
+    @Override
+    boolean matches(LineReader reader) {
+      if (null == this.prefixBytes) {
+        return super.matches(reader);
+      }
+      return reader.startsWith(this.prefixBytes);
+    }
+  }
+
+  static class Contains extends MultilineMatcher {
+    final String literal;
+
+    Contains(Charset charset, String literal) {
+      super(charset);
+      this.literal = literal;
+    }
+
+    @Override
+    boolean matches(String line) {
+      return line.contains(this.literal);
+    }
+  }
+
+  static class Regex extends MultilineMatcher {
+    final Matcher matcher;
+
+    Regex(Charset charset, Pattern pattern) {
+      super(charset);
+      this.matcher = pattern.matcher("");
+    }
+
+    @Override
+    boolean matches(String line) {
+      return this.matcher.reset(line).find();
+    }
+  }
+}
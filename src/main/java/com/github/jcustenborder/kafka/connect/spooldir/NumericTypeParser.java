@@ -0,0 +1,207 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jcustenborder.kafka.connect.utils.data.Parser;
+import com.github.jcustenborder.kafka.connect.utils.data.type.TypeParser;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * TypeParser for the integer and float64 types that parses plain decimal values without going
+ * through the parser registry and without throwing on the way. Anything other than an optional
+ * minus sign followed by digits, and for float64 an optional fraction, is handed to the Parser so
+ * the result and any error are the same as before.
+ */
+class NumericTypeParser implements TypeParser {
+  static final long NO_MATCH = Long.MIN_VALUE;
+  /**
+   * Powers of ten that are exactly representable as a double.
+   */
+  static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+  /**
+   * Largest mantissa that is exactly representable as a double.
+   */
+  static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  final Schema.Type type;
+  final Parser parser;
+
+  NumericTypeParser(Schema.Type type, Parser parser) {
+    this.type = type;
+    this.parser = parser;
+  }
+
+  /**
+   * Method is used to determine if a schema can be parsed by this class.
+   *
+   * @param schema schema of the field.
+   * @return true if the schema is a plain integer or float64.
+   */
+  static boolean supports(Schema schema) {
+    if (null != schema.name()) {
+      return false;
+    }
+    switch (schema.type()) {
+      case INT8:
+      case INT16:
+      case INT32:
+      case INT64:
+      case FLOAT64:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  @Override
+  public Object parseString(String s, Schema schema) {
+    Object result = null;
+    if (Schema.Type.FLOAT64 == this.type) {
+      final double value = parseDouble(s);
+      if (!Double.isNaN(value)) {
+        result = value;
+      }
+    } else {
+      final long value = parseLong(s);
+      if (NO_MATCH != value) {
+        result = box(value);
+      }
+    }
+    return null != result ? result : this.parser.parseString(schema, s);
+  }
+
+  /**
+   * Boxes a value using the cached boxes of valueOf.
+   *
+   * @return the boxed value or null if the value is out of range for the type.
+   */
+  Object box(long value) {
+    switch (this.type) {
+      case INT8:
+        return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ? Byte.valueOf((byte) value) : null;
+      case INT16:
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE ? Short.valueOf((short) value) : null;
+      case INT32:
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? Integer.valueOf((int) value) : null;
+      default:
+        return Long.valueOf(value);
+    }
+  }
+
+  @Override
+  public Class<?> expectedClass() {
+    switch (this.type) {
+      case INT8:
+        return Byte.class;
+      case INT16:
+        return Short.class;
+      case INT32:
+        return Integer.class;
+      case INT64:
+        return Long.class;
+      default:
+        return Double.class;
+    }
+  }
+
+  @Override
+  public Object parseJsonNode(JsonNode input, Schema schema) {
+    return this.parser.parseJsonNode(schema, input);
+  }
+
+  /**
+   * Parses an optional minus sign followed by up to 18 digits.
+   *
+   * @return the value or NO_MATCH.
+   */
+  static long parseLong(String s) {
+    final int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && '-' == s.charAt(0)) {
+      negative = true;
+      i++;
+    }
+    // 18 digits can not overflow a long.
+    if (i == length || length - i > 18) {
+      return NO_MATCH;
+    }
+    long result = 0;
+    for (; i < length; i++) {
+      final int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return NO_MATCH;
+      }
+      result = result * 10 + digit;
+    }
+    return negative ? -result : result;
+  }
+
+  /**
+   * Parses an optional minus sign, digits and an optional fraction. The digits are read as a long
+   * and divided by a power of ten, which is correctly rounded as long as both are exactly
+   * representable as a double.
+   *
+   * @return the value or NaN if the value can not be parsed exactly this way.
+   */
+  static double parseDouble(String s) {
+    final int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && '-' == s.charAt(0)) {
+      negative = true;
+      i++;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; i < length; i++) {
+      final char c = s.charAt(i);
+      if ('.' == c) {
+        if (fractionDigits >= 0) {
+          return Double.NaN;
+        }
+        fractionDigits = 0;
+        continue;
+      }
+      final int digit = c - '0';
+      if (digit < 0 || digit > 9) {
+        return Double.NaN;
+      }
+      mantissa = mantissa * 10 + digit;
+      digits++;
+      if (fractionDigits >= 0) {
+        fractionDigits++;
+      }
+      if (mantissa > MAX_EXACT_MANTISSA) {
+        return Double.NaN;
+      }
+    }
+    if (0 == digits || fractionDigits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+      return Double.NaN;
+    }
+    // -0.0 is left to the Parser.
+    if (negative && 0 == mantissa) {
+      return Double.NaN;
+    }
+    final double result = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+    return negative ? -result : result;
+  }
+}
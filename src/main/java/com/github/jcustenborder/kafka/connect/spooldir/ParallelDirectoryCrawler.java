@@ -0,0 +1,102 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lists a directory tree with a fork/join pool. Each directory is listed by its own task, so on
+ * file systems where listing a directory has a high latency the subdirectories are listed at the
+ * same time.
+ */
+class ParallelDirectoryCrawler implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(ParallelDirectoryCrawler.class);
+
+  final ForkJoinPool pool;
+
+  ParallelDirectoryCrawler(int parallelism) {
+    this.pool = new ForkJoinPool(parallelism);
+  }
+
+  /**
+   * @param inputPath directory to list.
+   * @return every file under the directory. Directories that could not be listed below the top
+   * level are logged and skipped.
+   * @throws IOException thrown if the top level directory could not be listed.
+   */
+  List<File> list(File inputPath) throws IOException {
+    try {
+      return this.pool.invoke(new ListDirectory(inputPath.toPath(), true));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  static class ListDirectory extends RecursiveTask<List<File>> {
+    final Path directory;
+    final boolean root;
+
+    ListDirectory(Path directory, boolean root) {
+      this.directory = directory;
+      this.root = root;
+    }
+
+    @Override
+    protected List<File> compute() {
+      final List<File> result = new ArrayList<>();
+      final List<ListDirectory> subdirectories = new ArrayList<>();
+      try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+        for (Path path : stream) {
+          if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+            ListDirectory task = new ListDirectory(path, false);
+            task.fork();
+            subdirectories.add(task);
+          } else if (Files.isRegularFile(path)) {
+            result.add(path.toFile());
+          }
+        }
+      } catch (IOException ex) {
+        if (this.root) {
+          throw new UncheckedIOException(ex);
+        }
+        log.error("Unexpected error listing {}: {}", this.directory, ex.getMessage(), ex);
+      }
+      for (ListDirectory task : subdirectories) {
+        result.addAll(task.join());
+      }
+      return result;
+    }
+  }
+
+  @Override
+  public void close() {
+    this.pool.shutdownNow();
+  }
+}
@@ -17,9 +17,6 @@ package com.github.jcustenborder.kafka.connect.spooldir;
 
 import io.confluent.connect.avro.AvroData;
 import org.apache.avro.file.DataFileReader;
-import org.apache.avro.generic.GenericContainer;
-import org.apache.avro.generic.GenericDatumReader;
-import org.apache.avro.io.DatumReader;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.slf4j.Logger;
@@ -32,10 +29,11 @@ import java.util.Map;
 
 public class SpoolDirAvroSourceTask extends AbstractSourceTask<SpoolDirAvroSourceConnectorConfig> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirAvroSourceTask.class);
+  static final int SCHEMA_CACHE_SIZE = 1024;
   long recordOffset;
-  AvroData avroData = new AvroData(1024);
-  DataFileReader<GenericContainer> dataFileReader;
-  DatumReader<GenericContainer> datumReader = new GenericDatumReader<>();
+  AvroData avroData = new AvroData(SCHEMA_CACHE_SIZE);
+  DataFileReader<Object> dataFileReader;
+  ConnectDatumReader datumReader = new ConnectDatumReader(avroData, SCHEMA_CACHE_SIZE);
 
 
   @Override
@@ -64,11 +62,10 @@ public class SpoolDirAvroSourceTask extends AbstractSourceTask<SpoolDirAvroSourc
   @Override
   protected List<SourceRecord> process() throws IOException {
     int recordCount = 0;
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
-    GenericContainer container = null;
-    while (recordCount <= this.config.batchSize && dataFileReader.hasNext()) {
-      container = dataFileReader.next(container);
-      SchemaAndValue value = avroData.toConnectData(this.dataFileReader.getSchema(), container);
+    List<SourceRecord> records = new ArrayList<>(batchSize());
+    while (recordCount <= batchSize() && dataFileReader.hasNext()) {
+      Object connectValue = dataFileReader.next();
+      SchemaAndValue value = new SchemaAndValue(this.datumReader.connectSchema(), connectValue);
       SourceRecord sourceRecord = record(null, value, null);
       records.add(sourceRecord);
       recordCount++;
@@ -81,4 +78,14 @@ public class SpoolDirAvroSourceTask extends AbstractSourceTask<SpoolDirAvroSourc
   protected long recordOffset() {
     return recordOffset;
   }
+
+  @Override
+  protected long bytesRead() {
+    try {
+      return null != this.dataFileReader ? this.dataFileReader.tell() : 0L;
+    } catch (IOException ex) {
+      log.trace("bytesRead() - Exception thrown while calling tell()", ex);
+      return 0L;
+    }
+  }
 }
@@ -61,4 +61,9 @@ public class SpoolDirBinaryFileSourceTask extends AbstractSourceTask<SpoolDirBin
   protected long recordOffset() {
     return 0;
   }
+
+  @Override
+  protected long estimateBatchBytes() {
+    return null != this.inputFile ? this.inputFile.length() : 0L;
+  }
 }
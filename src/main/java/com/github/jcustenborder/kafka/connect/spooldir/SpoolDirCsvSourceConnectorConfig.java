@@ -28,6 +28,7 @@ import com.opencsv.ICSVParser;
 import com.opencsv.RFC4180ParserBuilder;
 import com.opencsv.enums.CSVReaderNullFieldIndicator;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.errors.DataException;
 
 import java.io.Reader;
@@ -51,6 +52,8 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
   public static final String CSV_CHARSET_CONF = "csv.file.charset";
   public static final String CSV_CASE_SENSITIVE_FIELD_NAMES_CONF = "csv.case.sensitive.field.names";
   public static final String CSV_USE_RFC_4180_PARSER_CONF = "csv.rfc.4180.parser.enabled";
+  public static final String CSV_INFER_TYPES_CONF = "csv.schema.generation.infer.types";
+  public static final String CSV_SCHEMA_PER_FILE_CONF = "csv.schema.per.file.enabled";
   static final String CSV_SKIP_LINES_DISPLAY = "Skip lins";
   static final String CSV_SEPARATOR_CHAR_DISPLAY = "Separator Character";
   static final String CSV_QUOTE_CHAR_DISPLAY = "Quote Character";
@@ -67,6 +70,8 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
   static final String CSV_USE_RFC_4180_PARSER_DISPLAY = "Flag to determine if the RFC 4180 should be " +
       "used instead.";
   static final Object CSV_USE_RFC_4180_PARSER_DEFAULT = false;
+  static final String CSV_INFER_TYPES_DISPLAY = "Infer field types.";
+  static final String CSV_SCHEMA_PER_FILE_DISPLAY = "Schema per file.";
 
 
   static final String CSV_SKIP_LINES_DOC = "Number of lines to skip in the beginning of the file.";
@@ -103,6 +108,15 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
 
   static final String CSV_CASE_SENSITIVE_FIELD_NAMES_DOC = "Flag to determine if the field names in the header row should be treated as case sensitive.";
   static final String CSV_USE_RFC_4180_PARSER_DOC = "Flag to determine if the RFC 4180 parser should be used instead of the default parser.";
+  static final String CSV_INFER_TYPES_DOC = "Flag to determine if the schema generator should infer the type of each " +
+      "field. If true a sample of `" + SCHEMA_GENERATION_SAMPLE_SIZE_CONF + "` rows is taken from the file and each column " +
+      "is typed as the narrowest of boolean, int32, int64, float64, date, timestamp or string that fits every sampled " +
+      "value. Dates and timestamps are matched with `" + PARSER_TIMESTAMP_DATE_FORMATS_CONF + "`. Columns without a " +
+      "null in the sample are not optional. If false every column is an optional string.";
+  static final String CSV_SCHEMA_PER_FILE_DOC = "Flag to determine if the schema should be determined for each file " +
+      "from its header instead of once when the connector starts. This allows files with different columns to be read by " +
+      "the same connector. If the columns of a file are all in `" + VALUE_SCHEMA_CONF + "` that schema is used, otherwise " +
+      "every column is an optional string and the key contains the columns in `" + SCHEMA_GENERATION_KEY_FIELDS_CONF + "`.";
   static final String CSV_GROUP = "CSV Parsing";
   private static final String CSV_QUOTE_CHAR_DOC = "The character that is used to quote a field. This typically happens when the " + CSV_SEPARATOR_CHAR_CONF + " character is within the data.";
   private static final Character NULL_CHAR = (char) 0;
@@ -120,6 +134,8 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
   public final Charset charset;
   public final boolean caseSensitiveFieldNames;
   public final boolean useRFC4180Parser;
+  public final boolean inferTypes;
+  public final boolean schemaPerFile;
 
   public SpoolDirCsvSourceConnectorConfig(final boolean isTask, Map<String, ?> settings) {
     super(isTask, true, config(), settings);
@@ -139,6 +155,14 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
 
     this.caseSensitiveFieldNames = this.getBoolean(SpoolDirCsvSourceConnectorConfig.CSV_CASE_SENSITIVE_FIELD_NAMES_CONF);
     this.useRFC4180Parser = this.getBoolean(CSV_USE_RFC_4180_PARSER_CONF);
+    this.inferTypes = this.getBoolean(CSV_INFER_TYPES_CONF);
+    this.schemaPerFile = this.getBoolean(CSV_SCHEMA_PER_FILE_CONF);
+
+    if (this.schemaPerFile && !this.firstRowAsHeader) {
+      throw new ConnectException(
+          String.format("'%s' must be true if '%s' = true.", CSV_FIRST_ROW_AS_HEADER_CONF, CSV_SCHEMA_PER_FILE_CONF)
+      );
+    }
   }
 
   static ConfigDef config() {
@@ -281,6 +305,24 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
                 .documentation(CSV_USE_RFC_4180_PARSER_DOC)
                 .displayName(CSV_USE_RFC_4180_PARSER_DISPLAY)
                 .build()
+        )
+        .define(
+            ConfigKeyBuilder.of(CSV_INFER_TYPES_CONF, ConfigDef.Type.BOOLEAN)
+                .defaultValue(false)
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(CSV_INFER_TYPES_DOC)
+                .displayName(CSV_INFER_TYPES_DISPLAY)
+                .group(GROUP_SCHEMA_GENERATION)
+                .build()
+        )
+        .define(
+            ConfigKeyBuilder.of(CSV_SCHEMA_PER_FILE_CONF, ConfigDef.Type.BOOLEAN)
+                .defaultValue(false)
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(CSV_SCHEMA_PER_FILE_DOC)
+                .displayName(CSV_SCHEMA_PER_FILE_DISPLAY)
+                .group(GROUP_SCHEMA_GENERATION)
+                .build()
         );
   }
 
@@ -324,7 +366,8 @@ class SpoolDirCsvSourceConnectorConfig extends AbstractSpoolDirSourceConnectorCo
 
   @Override
   public boolean schemasRequired() {
-    return true;
+    // Called from the parent constructor so the field is not set yet.
+    return !this.getBoolean(CSV_SCHEMA_PER_FILE_CONF);
   }
 
   static class CharsetValidator implements ConfigDef.Validator {
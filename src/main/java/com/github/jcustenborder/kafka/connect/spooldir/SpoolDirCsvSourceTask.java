@@ -15,7 +15,10 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir;
 
+import com.github.jcustenborder.kafka.connect.utils.data.type.TypeParser;
 import com.google.common.base.Joiner;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVReaderBuilder;
 import com.opencsv.ICSVParser;
@@ -35,7 +38,12 @@ import java.util.Map;
 
 public class SpoolDirCsvSourceTask extends AbstractSpoolDirSourceTask<SpoolDirCsvSourceConnectorConfig> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirCsvSourceTask.class);
+  static final int CONVERTER_CACHE_SIZE = 64;
+  final Cache<List<String>, CsvRowConverter> converters = CacheBuilder.newBuilder()
+      .maximumSize(CONVERTER_CACHE_SIZE)
+      .build();
   String[] fieldNames;
+  CsvRowConverter converter;
   private ICSVParser csvParser;
   private CSVReader csvReader;
 //  private InputStreamReader streamReader;
@@ -78,6 +86,24 @@ public class SpoolDirCsvSourceTask extends AbstractSpoolDirSourceTask<SpoolDirCs
     }
 
     this.fieldNames = fieldNames;
+    this.converter = converter(fieldNames);
+  }
+
+  CsvRowConverter converter(String[] fieldNames) {
+    final List<String> signature = CsvRowConverter.signature(fieldNames);
+    CsvRowConverter result = this.converters.getIfPresent(signature);
+    if (null == result) {
+      if (!this.config.schemaPerFile ||
+          (null != this.config.keySchema && CsvRowConverter.covers(this.config.valueSchema, fieldNames))) {
+        log.trace("converter() - Using configured schema for {}", signature);
+        result = new CsvRowConverter(this.config.keySchema, this.config.valueSchema, fieldNames, this::fieldParser);
+      } else {
+        log.info("converter() - Deriving schema for {}", signature);
+        result = CsvRowConverter.derive(this.config, fieldNames);
+      }
+      this.converters.put(signature, result);
+    }
+    return result;
   }
 
   @Override
@@ -99,9 +125,9 @@ public class SpoolDirCsvSourceTask extends AbstractSpoolDirSourceTask<SpoolDirCs
 
   @Override
   public List<SourceRecord> process() throws IOException {
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
+    List<SourceRecord> records = new ArrayList<>(batchSize());
 
-    while (records.size() < this.config.batchSize) {
+    while (records.size() < batchSize()) {
       String[] row = this.csvReader.readNext();
 
       if (null == row) {
@@ -112,20 +138,26 @@ public class SpoolDirCsvSourceTask extends AbstractSpoolDirSourceTask<SpoolDirCs
       }
       log.trace("process() - Row on line {} has {} field(s)", recordOffset(), row.length);
 
-      Struct keyStruct = new Struct(this.config.keySchema);
-      Struct valueStruct = new Struct(this.config.valueSchema);
+      final CsvRowConverter converter = this.converter;
+      Struct keyStruct = new Struct(converter.keySchema);
+      Struct valueStruct = new Struct(converter.valueSchema);
 
-      for (int i = 0; i < this.fieldNames.length; i++) {
-        String fieldName = this.fieldNames[i];
+      for (int i = 0; i < converter.fieldNames.length; i++) {
+        String fieldName = converter.fieldNames[i];
         log.trace("process() - Processing field {}", fieldName);
         String input = row[i];
         log.trace("process() - input = '{}'", input);
         Object fieldValue = null;
 
         try {
-          Field field = this.config.valueSchema.field(fieldName);
+          Field field = converter.valueFields[i];
           if (null != field) {
-            fieldValue = this.parser.parseString(field.schema(), input);
+            final TypeParser fieldParser = converter.fieldParsers[i];
+            if (null != fieldParser && null != input && !input.isEmpty()) {
+              fieldValue = fieldParser.parseString(input, field.schema());
+            } else {
+              fieldValue = this.parser.parseString(field.schema(), input);
+            }
             log.trace("process() - output = '{}'", fieldValue);
             valueStruct.put(field, fieldValue);
           } else {
@@ -136,7 +168,7 @@ public class SpoolDirCsvSourceTask extends AbstractSpoolDirSourceTask<SpoolDirCs
           throw new DataException(message, ex);
         }
 
-        Field keyField = this.config.keySchema.field(fieldName);
+        Field keyField = converter.keyFields[i];
         if (null != keyField) {
           log.trace("process() - Setting key field '{}' to '{}'", keyField.name(), fieldValue);
           keyStruct.put(keyField, fieldValue);
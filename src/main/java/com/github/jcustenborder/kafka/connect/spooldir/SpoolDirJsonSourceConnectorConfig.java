@@ -15,13 +15,30 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir;
 
+import com.github.jcustenborder.kafka.connect.utils.config.ConfigKeyBuilder;
 import org.apache.kafka.common.config.ConfigDef;
 
 import java.util.Map;
 
 class SpoolDirJsonSourceConnectorConfig extends AbstractSpoolDirSourceConnectorConfig {
+  public static final String JSON_INFER_TYPES_CONF = "json.schema.generation.infer.types";
+  public static final String JSON_MAX_FIELDS_CONF = "json.schema.generation.max.fields";
+  static final String JSON_INFER_TYPES_DOC = "Flag to determine if the schema generator should infer the type of each " +
+      "field. If true the first `" + SCHEMA_GENERATION_SAMPLE_SIZE_CONF + "` documents of the file are read and nested " +
+      "objects and arrays are mapped to structs and arrays. Numeric types are widened to fit every value and fields " +
+      "that are missing or null in any document are optional. If false every top level field of the first document is " +
+      "an optional string.";
+  static final String JSON_MAX_FIELDS_DOC = "The maximum number of distinct keys a nested object can have before it is " +
+      "generated as a map instead of a struct. This bounds the memory used while inferring types.";
+  static final int JSON_MAX_FIELDS_DEFAULT = 256;
+
+  public final boolean inferTypes;
+  public final int maxFields;
+
   public SpoolDirJsonSourceConnectorConfig(final boolean isTask, Map<String, ?> settings) {
     super(isTask, true, config(), settings);
+    this.inferTypes = this.getBoolean(JSON_INFER_TYPES_CONF);
+    this.maxFields = this.getInt(JSON_MAX_FIELDS_CONF);
   }
 
   @Override
@@ -30,7 +47,23 @@ class SpoolDirJsonSourceConnectorConfig extends AbstractSpoolDirSourceConnectorC
   }
 
   public static ConfigDef config() {
-    return AbstractSpoolDirSourceConnectorConfig.config(true);
+    return AbstractSpoolDirSourceConnectorConfig.config(true)
+        .define(
+            ConfigKeyBuilder.of(JSON_INFER_TYPES_CONF, ConfigDef.Type.BOOLEAN)
+                .documentation(JSON_INFER_TYPES_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(false)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(JSON_MAX_FIELDS_CONF, ConfigDef.Type.INT)
+                .documentation(JSON_MAX_FIELDS_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .group(GROUP_SCHEMA_GENERATION)
+                .defaultValue(JSON_MAX_FIELDS_DEFAULT)
+                .validator(ConfigDef.Range.atLeast(1))
+                .build()
+        );
   }
 
 }
@@ -82,9 +82,9 @@ public class SpoolDirJsonSourceTask extends AbstractSpoolDirSourceTask<SpoolDirJ
 
   @Override
   protected List<SourceRecord> process() {
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
+    List<SourceRecord> records = new ArrayList<>(batchSize());
 
-    while (this.iterator.hasNext() && records.size() < this.config.batchSize) {
+    while (this.iterator.hasNext() && records.size() < batchSize()) {
       JsonNode node = next();
 
       Struct valueStruct = new Struct(this.config.valueSchema);
@@ -124,4 +124,15 @@ public class SpoolDirJsonSourceTask extends AbstractSpoolDirSourceTask<SpoolDirJ
   protected long recordOffset() {
     return this.offset;
   }
+
+  @Override
+  protected long bytesRead() {
+    if (null != this.jsonParser) {
+      final long result = this.jsonParser.getCurrentLocation().getByteOffset();
+      if (result >= 0) {
+        return result;
+      }
+    }
+    return super.bytesRead();
+  }
 }
@@ -17,22 +17,82 @@ package com.github.jcustenborder.kafka.connect.spooldir;
 
 import com.github.jcustenborder.kafka.connect.utils.config.ConfigKeyBuilder;
 import com.github.jcustenborder.kafka.connect.utils.config.ConfigUtils;
+import com.github.jcustenborder.kafka.connect.utils.config.ValidEnum;
+import com.google.common.base.Strings;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.connect.errors.ConnectException;
 
 import java.nio.charset.Charset;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class SpoolDirLineDelimitedSourceConnectorConfig extends AbstractSourceConnectorConfig {
   public static final String CHARSET_CONF = "file.charset";
   static final String CHARSET_DOC = "Character set to read wth file with.";
   static final String CHARSET_DEFAULT = Charset.defaultCharset().name();
   static final String CHARSET_DISPLAY = "File character set.";
+  public static final String VALUE_TYPE_CONF = "line.value.type";
+  static final String VALUE_TYPE_DOC = "The type of the value written to Kafka. `" + ValueType.STRING + "` decodes each " +
+      "line with `" + CHARSET_CONF + "`. `" + ValueType.BYTES + "` writes the bytes of the line without decoding them.";
+  static final String VALUE_TYPE_DISPLAY = "Value type.";
+  public static final String MULTILINE_MODE_CONF = "multiline.mode";
+  static final String MULTILINE_MODE_DOC = "How lines are grouped into a single record. `" + MultilineMode.NONE + "` " +
+      "writes a record per line. `" + MultilineMode.START_PATTERN + "` starts a record at each line matching " +
+      "`multiline.pattern` and adds the lines that do not match to it. `" + MultilineMode.CONTINUATION_PATTERN + "` " +
+      "adds each line matching `multiline.pattern` to the previous record. `" + MultilineMode.INDENT + "` adds each " +
+      "line starting with a space or a tab to the previous record. The lines of a record are joined with \\n.";
+  static final String MULTILINE_MODE_DISPLAY = "Multiline mode.";
+  public static final String MULTILINE_PATTERN_CONF = "multiline.pattern";
+  static final String MULTILINE_PATTERN_DOC = "Regular expression used by `" + MultilineMode.START_PATTERN + "` and `" +
+      MultilineMode.CONTINUATION_PATTERN + "`. The pattern can match anywhere in the line, use ^ to match the start. " +
+      "Literal prefixes such as `^\\[` and leading character classes such as `^\\s` are checked without the regex " +
+      "engine.";
+  static final String MULTILINE_PATTERN_DISPLAY = "Multiline pattern.";
+  public static final String MULTILINE_MAX_LINES_CONF = "multiline.max.lines";
+  static final String MULTILINE_MAX_LINES_DOC = "The maximum number of lines in a record. The line after the limit " +
+      "starts a new record.";
+  static final String MULTILINE_MAX_LINES_DISPLAY = "Multiline maximum lines.";
+  public static final String MULTILINE_MAX_BYTES_CONF = "multiline.max.bytes";
+  static final String MULTILINE_MAX_BYTES_DOC = "The maximum size of a record in bytes. A line that would make the " +
+      "record larger starts a new record. A single line larger than this is not split. Counted in characters for " +
+      "charsets such as UTF-16 that are not read a byte at a time.";
+  static final String MULTILINE_MAX_BYTES_DISPLAY = "Multiline maximum bytes.";
+
+  public enum ValueType {
+    STRING,
+    BYTES
+  }
+
+  public enum MultilineMode {
+    NONE,
+    START_PATTERN,
+    CONTINUATION_PATTERN,
+    INDENT
+  }
 
   public final Charset charset;
+  public final ValueType valueType;
+  public final MultilineMode multilineMode;
+  public final Pattern multilinePattern;
+  public final int multilineMaxLines;
+  public final int multilineMaxBytes;
 
   public SpoolDirLineDelimitedSourceConnectorConfig(Map<?, ?> originals) {
     super(config(), originals, true);
     this.charset = ConfigUtils.charset(this, CHARSET_CONF);
+    this.valueType = ConfigUtils.getEnum(ValueType.class, this, VALUE_TYPE_CONF);
+    this.multilineMode = ConfigUtils.getEnum(MultilineMode.class, this, MULTILINE_MODE_CONF);
+    this.multilineMaxLines = this.getInt(MULTILINE_MAX_LINES_CONF);
+    this.multilineMaxBytes = this.getInt(MULTILINE_MAX_BYTES_CONF);
+
+    final String multilinePatternText = this.getString(MULTILINE_PATTERN_CONF);
+    if ((MultilineMode.START_PATTERN == this.multilineMode || MultilineMode.CONTINUATION_PATTERN == this.multilineMode) &&
+        Strings.isNullOrEmpty(multilinePatternText)) {
+      throw new ConnectException(
+          String.format("'%s' must be set if '%s' = %s.", MULTILINE_PATTERN_CONF, MULTILINE_MODE_CONF, this.multilineMode)
+      );
+    }
+    this.multilinePattern = Strings.isNullOrEmpty(multilinePatternText) ? null : Pattern.compile(multilinePatternText);
   }
 
   public static ConfigDef config() {
@@ -46,6 +106,45 @@ public class SpoolDirLineDelimitedSourceConnectorConfig extends AbstractSourceCo
                 .displayName(CHARSET_DISPLAY)
                 .width(ConfigDef.Width.LONG)
                 .build()
+        ).define(
+            ConfigKeyBuilder.of(VALUE_TYPE_CONF, ConfigDef.Type.STRING)
+                .defaultValue(ValueType.STRING.toString())
+                .validator(ValidEnum.of(ValueType.class))
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(VALUE_TYPE_DOC)
+                .displayName(VALUE_TYPE_DISPLAY)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(MULTILINE_MODE_CONF, ConfigDef.Type.STRING)
+                .defaultValue(MultilineMode.NONE.toString())
+                .validator(ValidEnum.of(MultilineMode.class))
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(MULTILINE_MODE_DOC)
+                .displayName(MULTILINE_MODE_DISPLAY)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(MULTILINE_PATTERN_CONF, ConfigDef.Type.STRING)
+                .defaultValue("")
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(MULTILINE_PATTERN_DOC)
+                .displayName(MULTILINE_PATTERN_DISPLAY)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(MULTILINE_MAX_LINES_CONF, ConfigDef.Type.INT)
+                .defaultValue(500)
+                .validator(ConfigDef.Range.atLeast(1))
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(MULTILINE_MAX_LINES_DOC)
+                .displayName(MULTILINE_MAX_LINES_DISPLAY)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(MULTILINE_MAX_BYTES_CONF, ConfigDef.Type.INT)
+                .defaultValue(1024 * 1024)
+                .validator(ConfigDef.Range.atLeast(1))
+                .importance(ConfigDef.Importance.LOW)
+                .documentation(MULTILINE_MAX_BYTES_DOC)
+                .displayName(MULTILINE_MAX_BYTES_DISPLAY)
+                .build()
         );
   }
 }
@@ -21,7 +21,9 @@ import org.apache.kafka.connect.source.SourceRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.LineNumberReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +31,28 @@ import java.util.Map;
 public class SpoolDirLineDelimitedSourceTask extends AbstractSourceTask<SpoolDirLineDelimitedSourceConnectorConfig> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirLineDelimitedSourceTask.class);
 
+  MultilineMatcher multilineMatcher;
+  /**
+   * True if a line matching the multiline matcher belongs to the previous record, false if it
+   * starts a new one.
+   */
+  boolean multilineContinues;
+  final StringBuilder groupBuilder = new StringBuilder();
+  final ByteArrayOutputStream groupBytes = new ByteArrayOutputStream();
+  int groupLines;
+  long groupSize;
+  /**
+   * Position after the last line of the pending record.
+   */
+  long groupLineNumber;
+  long groupByteOffset;
+  /**
+   * Position after the last line of the last record that was sent. This is what is stored as the
+   * offset because the pending record has not been sent yet.
+   */
+  long sentLineNumber;
+  long sentByteOffset;
+
   @Override
   protected SpoolDirLineDelimitedSourceConnectorConfig config(Map<String, ?> settings) {
     return new SpoolDirLineDelimitedSourceConnectorConfig(settings);
@@ -36,15 +60,80 @@ public class SpoolDirLineDelimitedSourceTask extends AbstractSourceTask<SpoolDir
 
   @Override
   protected void configure(InputFile inputFile, Long lastOffset) throws IOException {
-    this.inputFile.openLineNumberReader(this.config.charset);
+    configureReader(inputFile, lastOffset);
+    if (SpoolDirLineDelimitedSourceConnectorConfig.MultilineMode.NONE != this.config.multilineMode) {
+      configureMultiline();
+    }
+  }
+
+  void configureMultiline() {
+    if (null == this.multilineMatcher) {
+      if (SpoolDirLineDelimitedSourceConnectorConfig.MultilineMode.INDENT == this.config.multilineMode) {
+        this.multilineMatcher = MultilineMatcher.indent(this.config.charset);
+      } else {
+        this.multilineMatcher = MultilineMatcher.of(this.config.multilinePattern, this.config.charset);
+      }
+      this.multilineContinues = SpoolDirLineDelimitedSourceConnectorConfig.MultilineMode.START_PATTERN != this.config.multilineMode;
+    }
+    this.groupBuilder.setLength(0);
+    this.groupBytes.reset();
+    this.groupLines = 0;
+    this.groupSize = 0;
+    this.sentLineNumber = lineNumber();
+    this.sentByteOffset = null != this.inputFile.lineReader() ? this.inputFile.lineReader().offset() : -1L;
+  }
+
+  void configureReader(InputFile inputFile, Long lastOffset) throws IOException {
+    if (SpoolDirLineDelimitedSourceConnectorConfig.ValueType.BYTES == this.config.valueType ||
+        LineReader.supports(this.config.charset)) {
+      final LineReader lineReader = this.inputFile.openLineReader();
+      if (null != lastOffset && null != this.lastByteOffset) {
+        log.info("Found previous offset. Skipping {} byte(s).", this.lastByteOffset);
+        lineReader.seek(this.lastByteOffset, lastOffset);
+      } else if (null != lastOffset) {
+        log.info("Found previous offset. Skipping {} line(s).", lastOffset);
+        while (lineReader.lineNumber() < lastOffset && lineReader.next()) {
+          log.trace("skipped line");
+        }
+      }
+    } else {
+      log.debug("configure() - {} can not be split on bytes. Using a LineNumberReader.", this.config.charset);
+      final LineNumberReader lineNumberReader = this.inputFile.openLineNumberReader(this.config.charset);
+      if (null != lastOffset) {
+        log.info("Found previous offset. Skipping {} line(s).", lastOffset);
+        while (lineNumberReader.getLineNumber() < lastOffset && null != lineNumberReader.readLine()) {
+          log.trace("skipped line");
+        }
+      }
+    }
   }
 
   @Override
   protected List<SourceRecord> process() throws IOException {
+    if (null != this.multilineMatcher) {
+      return processMultiline();
+    }
+    final LineReader lineReader = this.inputFile.lineReader();
+    if (null == lineReader) {
+      return processReader();
+    }
+
+    final boolean bytes = SpoolDirLineDelimitedSourceConnectorConfig.ValueType.BYTES == this.config.valueType;
+    List<SourceRecord> records = new ArrayList<>(batchSize());
+    while (records.size() < batchSize() && lineReader.next()) {
+      final SchemaAndValue value = bytes ?
+          new SchemaAndValue(Schema.BYTES_SCHEMA, lineReader.bytes()) :
+          new SchemaAndValue(Schema.STRING_SCHEMA, lineReader.string(this.config.charset));
+      records.add(record(null, value, null));
+    }
+    return records;
+  }
+
+  List<SourceRecord> processReader() throws IOException {
     int recordCount = 0;
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
+    List<SourceRecord> records = new ArrayList<>(batchSize());
     String line = null;
-    while (recordCount < this.config.batchSize && null != (line = this.inputFile.lineNumberReader().readLine())) {
+    while (recordCount < batchSize() && null != (line = this.inputFile.lineNumberReader().readLine())) {
       SourceRecord record = record(
           null,
           new SchemaAndValue(Schema.STRING_SCHEMA, line),
@@ -56,14 +145,118 @@ public class SpoolDirLineDelimitedSourceTask extends AbstractSourceTask<SpoolDir
     return records;
   }
 
+  List<SourceRecord> processMultiline() throws IOException {
+    final LineReader lineReader = this.inputFile.lineReader();
+    final LineNumberReader lineNumberReader = this.inputFile.lineNumberReader();
+    final boolean bytes = SpoolDirLineDelimitedSourceConnectorConfig.ValueType.BYTES == this.config.valueType;
+    List<SourceRecord> records = new ArrayList<>(batchSize());
+    while (records.size() < batchSize()) {
+      final String line;
+      final int length;
+      final boolean matches;
+      if (null != lineReader) {
+        if (!lineReader.next()) {
+          break;
+        }
+        line = bytes ? null : lineReader.string(this.config.charset);
+        length = lineReader.length();
+        matches = bytes ? this.multilineMatcher.matches(lineReader) : this.multilineMatcher.matches(line);
+      } else {
+        line = lineNumberReader.readLine();
+        if (null == line) {
+          break;
+        }
+        length = line.length();
+        matches = this.multilineMatcher.matches(line);
+      }
+
+      if (this.groupLines > 0 && (matches != this.multilineContinues ||
+          this.groupLines >= this.config.multilineMaxLines ||
+          this.groupSize + 1 + length > this.config.multilineMaxBytes)) {
+        records.add(flushGroup());
+      }
+
+      if (this.groupLines > 0) {
+        if (bytes) {
+          this.groupBytes.write('\n');
+        } else {
+          this.groupBuilder.append('\n');
+        }
+        this.groupSize++;
+      }
+      if (bytes) {
+        lineReader.copyTo(this.groupBytes);
+      } else {
+        this.groupBuilder.append(line);
+      }
+      this.groupLines++;
+      this.groupSize += length;
+      this.groupLineNumber = lineNumber();
+      this.groupByteOffset = null != lineReader ? lineReader.offset() : -1L;
+    }
+
+    // The pending record is only known to be complete at the end of the file.
+    if (records.size() < batchSize() && this.groupLines > 0) {
+      records.add(flushGroup());
+    }
+    return records;
+  }
+
+  SourceRecord flushGroup() {
+    final SchemaAndValue value;
+    if (SpoolDirLineDelimitedSourceConnectorConfig.ValueType.BYTES == this.config.valueType) {
+      value = new SchemaAndValue(Schema.BYTES_SCHEMA, this.groupBytes.toByteArray());
+      this.groupBytes.reset();
+    } else {
+      value = new SchemaAndValue(Schema.STRING_SCHEMA, this.groupBuilder.toString());
+      this.groupBuilder.setLength(0);
+    }
+    this.groupLines = 0;
+    this.groupSize = 0;
+    this.sentLineNumber = this.groupLineNumber;
+    this.sentByteOffset = this.groupByteOffset;
+    return record(null, value, null);
+  }
+
+  long lineNumber() {
+    long result = -1L;
+
+    if (null != this.inputFile && null != this.inputFile.lineReader()) {
+      result = this.inputFile.lineReader().lineNumber();
+    } else if (null != this.inputFile && null != this.inputFile.lineNumberReader()) {
+      result = this.inputFile.lineNumberReader().getLineNumber();
+    }
+
+    return result;
+  }
+
   @Override
   protected long recordOffset() {
+    if (null != this.multilineMatcher) {
+      return this.sentLineNumber;
+    }
+    return lineNumber();
+  }
+
+  @Override
+  protected long byteOffset() {
+    if (null != this.multilineMatcher) {
+      return this.sentByteOffset;
+    }
     long result = -1L;
 
-    if (null != this.inputFile && null != this.inputFile.lineNumberReader()) {
-      result = this.inputFile.lineNumberReader().getLineNumber();
+    if (null != this.inputFile && null != this.inputFile.lineReader()) {
+      result = this.inputFile.lineReader().offset();
     }
 
     return result;
   }
+
+  @Override
+  protected long bytesRead() {
+    if (null != this.inputFile && null != this.inputFile.lineReader()) {
+      return this.inputFile.lineReader().offset();
+    }
+    return super.bytesRead();
+  }
 }
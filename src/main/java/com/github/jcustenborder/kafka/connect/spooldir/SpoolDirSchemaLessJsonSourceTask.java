@@ -19,6 +19,7 @@ import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
+import com.google.common.io.ByteStreams;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.source.SourceRecord;
@@ -43,6 +44,7 @@ public class SpoolDirSchemaLessJsonSourceTask extends AbstractSourceTask<SpoolDi
   MappingIterator<JsonNode> nodeIterator;
 
   long recordOffset;
+  long byteOffsetBase;
 
   @Override
   protected void configure(InputFile inputFile, Long lastOffset) throws IOException {
@@ -50,17 +52,32 @@ public class SpoolDirSchemaLessJsonSourceTask extends AbstractSourceTask<SpoolDi
       this.parser.close();
     }
     this.recordOffset = 0;
+    this.byteOffsetBase = 0;
     InputStream inputStream = inputFile.openStream();
+    // The offset is the index of the last record that was sent.
+    if (null != lastOffset && null != this.lastByteOffset) {
+      log.info("Found previous offset. Skipping {} byte(s).", this.lastByteOffset);
+      ByteStreams.skipFully(inputStream, this.lastByteOffset);
+      this.byteOffsetBase = this.lastByteOffset;
+      this.recordOffset = lastOffset + 1;
+    }
     this.parser = ObjectMapperFactory.INSTANCE.getJsonFactory().createParser(inputStream);
     this.nodeIterator = ObjectMapperFactory.INSTANCE.readValues(this.parser, JsonNode.class);
 
+    if (null != lastOffset && null == this.lastByteOffset) {
+      log.info("Found previous offset. Skipping {} record(s).", lastOffset);
+      while (this.recordOffset <= lastOffset && this.nodeIterator.hasNext()) {
+        this.nodeIterator.next();
+        this.recordOffset++;
+      }
+    }
   }
 
   @Override
   protected List<SourceRecord> process() throws IOException {
     int recordCount = 0;
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
-    while (recordCount < this.config.batchSize && this.nodeIterator.hasNext()) {
+    List<SourceRecord> records = new ArrayList<>(batchSize());
+    while (recordCount < batchSize() && this.nodeIterator.hasNext()) {
       JsonNode node = this.nodeIterator.next();
       String value = ObjectMapperFactory.INSTANCE.writeValueAsString(node);
       SourceRecord record = record(
@@ -79,4 +96,19 @@ public class SpoolDirSchemaLessJsonSourceTask extends AbstractSourceTask<SpoolDi
   protected long recordOffset() {
     return this.recordOffset;
   }
+
+  @Override
+  protected long byteOffset() {
+    if (null == this.parser) {
+      return -1L;
+    }
+    final long byteOffset = this.parser.getCurrentLocation().getByteOffset();
+    return byteOffset < 0 ? -1L : this.byteOffsetBase + byteOffset;
+  }
+
+  @Override
+  protected long bytesRead() {
+    final long result = byteOffset();
+    return result < 0 ? super.bytesRead() : result;
+  }
 }
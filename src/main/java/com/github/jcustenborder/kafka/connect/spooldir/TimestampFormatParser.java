@@ -0,0 +1,352 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jcustenborder.kafka.connect.utils.data.type.TypeParser;
+import org.apache.kafka.connect.data.Schema;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * TypeParser for the Date, Time and Timestamp logical types. The format that matched the previous
+ * value is tried first, values are matched with a ParsePosition so a miss does not throw, and ISO
+ * 8601 layouts are parsed by hand. Values that no format matches are handed to the delegate so the
+ * error is the same as before.
+ */
+class TimestampFormatParser implements TypeParser {
+  static final long NO_MATCH = Long.MIN_VALUE;
+
+  final TypeParser delegate;
+  final CompiledFormat[] formats;
+  final boolean epochMillis;
+  int lastMatch = -1;
+
+  TimestampFormatParser(TypeParser delegate, SimpleDateFormat[] dateFormats, boolean epochMillis) {
+    this.delegate = delegate;
+    this.formats = new CompiledFormat[dateFormats.length];
+    for (int i = 0; i < dateFormats.length; i++) {
+      this.formats[i] = new CompiledFormat(dateFormats[i]);
+    }
+    this.epochMillis = epochMillis;
+  }
+
+  /**
+   * Creates a parser that shares the compiled formats but remembers its own last match. Used to
+   * give each column its own parser.
+   */
+  TimestampFormatParser(TimestampFormatParser parser) {
+    this.delegate = parser.delegate;
+    this.formats = parser.formats;
+    this.epochMillis = parser.epochMillis;
+  }
+
+  @Override
+  public Object parseString(String s, Schema schema) {
+    final Date result = parse(s);
+    if (null != result) {
+      return result;
+    }
+    return this.delegate.parseString(s, schema);
+  }
+
+  Date parse(String s) {
+    if (this.epochMillis) {
+      final long millis = parseEpochMillis(s);
+      if (NO_MATCH != millis) {
+        return new Date(millis);
+      }
+    }
+
+    final int last = this.lastMatch;
+    if (last > 0) {
+      final Date result = this.formats[last].parse(s, true);
+      if (null != result) {
+        return result;
+      }
+    }
+
+    for (int i = 0; i < this.formats.length; i++) {
+      final Date result = this.formats[i].parse(s, false);
+      if (null != result) {
+        this.lastMatch = i;
+        return result;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public Class<?> expectedClass() {
+    return this.delegate.expectedClass();
+  }
+
+  @Override
+  public Object parseJsonNode(JsonNode input, Schema schema) {
+    if (input.isTextual()) {
+      return parseString(input.textValue(), schema);
+    }
+    return this.delegate.parseJsonNode(input, schema);
+  }
+
+  static long parseEpochMillis(String s) {
+    final int length = s.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && '-' == s.charAt(0)) {
+      negative = true;
+      i++;
+    }
+    // 18 digits can not overflow a long.
+    if (i == length || length - i > 18) {
+      return NO_MATCH;
+    }
+    long result = 0;
+    for (; i < length; i++) {
+      final int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return NO_MATCH;
+      }
+      result = result * 10 + digit;
+    }
+    return negative ? -result : result;
+  }
+
+  /**
+   * Reads a fixed number of digits.
+   *
+   * @return the value or -1 if one of the characters is not a digit.
+   */
+  static int digits(String s, int offset, int count) {
+    int result = 0;
+    for (int i = offset; i < offset + count; i++) {
+      final int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
+  enum Zone {
+    /**
+     * The time zone of the format is used.
+     */
+    NONE(""),
+    /**
+     * A quoted Z. The time zone of the format is used.
+     */
+    LITERAL("'Z'"),
+    /**
+     * Z or an offset in the form +hh:mm.
+     */
+    OFFSET("XXX");
+
+    final String pattern;
+
+    Zone(String pattern) {
+      this.pattern = pattern;
+    }
+  }
+
+  /**
+   * SimpleDateFormat with a hand written parser for the ISO 8601 layouts. The hand written parser
+   * only handles values with exactly the expected layout and in range fields, everything else is
+   * parsed by the SimpleDateFormat so lenient parsing behaves the same.
+   */
+  static class CompiledFormat {
+    static final String DATE_PATTERN = "yyyy-MM-dd";
+    static final String TIME_PATTERN = "HH:mm:ss";
+    static final String MILLIS_PATTERN = ".SSS";
+    static final String[] SEPARATORS = {"'T'", "' '", " "};
+    /**
+     * SimpleDateFormat switches to the Julian calendar before this year.
+     */
+    static final int MIN_YEAR = 1583;
+
+    final SimpleDateFormat dateFormat;
+    final boolean fast;
+    final boolean hasTime;
+    final char separator;
+    final boolean hasMillis;
+    final Zone zone;
+    final int length;
+    final ZoneRules rules;
+
+    CompiledFormat(SimpleDateFormat dateFormat) {
+      this.dateFormat = dateFormat;
+      this.rules = dateFormat.getTimeZone().toZoneId().getRules();
+
+      final String pattern = dateFormat.toPattern();
+      boolean fast = DATE_PATTERN.equals(pattern);
+      boolean hasTime = false;
+      char separator = 0;
+      boolean hasMillis = false;
+      Zone zone = Zone.NONE;
+      for (String s : SEPARATORS) {
+        for (boolean millis : new boolean[]{false, true}) {
+          for (Zone z : Zone.values()) {
+            final String candidate = DATE_PATTERN + s + TIME_PATTERN + (millis ? MILLIS_PATTERN : "") + z.pattern;
+            if (candidate.equals(pattern)) {
+              fast = true;
+              hasTime = true;
+              separator = s.charAt(s.length() == 1 ? 0 : 1);
+              hasMillis = millis;
+              zone = z;
+            }
+          }
+        }
+      }
+      this.fast = fast;
+      this.hasTime = hasTime;
+      this.separator = separator;
+      this.hasMillis = hasMillis;
+      this.zone = zone;
+      this.length = 10 + (hasTime ? 9 : 0) + (hasMillis ? 4 : 0) + (Zone.LITERAL == zone ? 1 : 0);
+    }
+
+    /**
+     * Parses a value.
+     *
+     * @param s         value to parse.
+     * @param fullMatch true if the whole value must be used.
+     * @return the date or null if the value does not match.
+     */
+    Date parse(String s, boolean fullMatch) {
+      if (this.fast) {
+        final long result = parseFast(s);
+        if (NO_MATCH != result) {
+          return new Date(result);
+        }
+      }
+      final ParsePosition position = new ParsePosition(0);
+      final Date result = this.dateFormat.parse(s, position);
+      if (null == result || (fullMatch && position.getIndex() != s.length())) {
+        return null;
+      }
+      return result;
+    }
+
+    long parseFast(String s) {
+      final int valueLength = s.length();
+      if (Zone.OFFSET == this.zone) {
+        if (valueLength != this.length + 1 && valueLength != this.length + 6) {
+          return NO_MATCH;
+        }
+      } else if (valueLength != this.length) {
+        return NO_MATCH;
+      }
+
+      if ('-' != s.charAt(4) || '-' != s.charAt(7)) {
+        return NO_MATCH;
+      }
+      final int year = digits(s, 0, 4);
+      final int month = digits(s, 5, 2);
+      final int day = digits(s, 8, 2);
+      if (year < MIN_YEAR || month < 1 || month > 12 || day < 1 ||
+          day > Month.of(month).length(Year.isLeap(year))) {
+        return NO_MATCH;
+      }
+
+      int hour = 0;
+      int minute = 0;
+      int second = 0;
+      int millis = 0;
+      int offset = 10;
+      if (this.hasTime) {
+        if (this.separator != s.charAt(10) || ':' != s.charAt(13) || ':' != s.charAt(16)) {
+          return NO_MATCH;
+        }
+        hour = digits(s, 11, 2);
+        minute = digits(s, 14, 2);
+        second = digits(s, 17, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+          return NO_MATCH;
+        }
+        offset = 19;
+        if (this.hasMillis) {
+          if ('.' != s.charAt(19)) {
+            return NO_MATCH;
+          }
+          millis = digits(s, 20, 3);
+          if (millis < 0) {
+            return NO_MATCH;
+          }
+          offset = 23;
+        }
+      }
+
+      final LocalDateTime localDateTime = LocalDateTime.of(year, month, day, hour, minute, second);
+      final ZoneOffset zoneOffset;
+      switch (this.zone) {
+        case LITERAL:
+          if ('Z' != s.charAt(offset)) {
+            return NO_MATCH;
+          }
+          zoneOffset = zoneOffset(localDateTime);
+          break;
+        case OFFSET:
+          zoneOffset = parseOffset(s, offset);
+          break;
+        default:
+          zoneOffset = zoneOffset(localDateTime);
+          break;
+      }
+      if (null == zoneOffset) {
+        return NO_MATCH;
+      }
+      return localDateTime.toEpochSecond(zoneOffset) * 1000L + millis;
+    }
+
+    /**
+     * Returns the offset of the format's time zone or null if the local time is in a gap or an
+     * overlap.
+     */
+    ZoneOffset zoneOffset(LocalDateTime localDateTime) {
+      if (this.rules.isFixedOffset()) {
+        return this.rules.getOffset(localDateTime);
+      }
+      final List<ZoneOffset> offsets = this.rules.getValidOffsets(localDateTime);
+      return 1 == offsets.size() ? offsets.get(0) : null;
+    }
+
+    static ZoneOffset parseOffset(String s, int offset) {
+      if (s.length() == offset + 1) {
+        return 'Z' == s.charAt(offset) ? ZoneOffset.UTC : null;
+      }
+      final char sign = s.charAt(offset);
+      if (('+' != sign && '-' != sign) || ':' != s.charAt(offset + 3)) {
+        return null;
+      }
+      final int hours = digits(s, offset + 1, 2);
+      final int minutes = digits(s, offset + 4, 2);
+      if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+        return null;
+      }
+      final int totalSeconds = (hours * 3600 + minutes * 60) * ('-' == sign ? -1 : 1);
+      return ZoneOffset.ofTotalSeconds(totalSeconds);
+    }
+  }
+}
@@ -0,0 +1,592 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir.elf;
+
+import org.apache.kafka.connect.errors.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tokenizer for Extended Log File Format files. Lines are split directly on a char buffer and
+ * values are converted to the types Connect expects. Dates and times are parsed straight to epoch
+ * milliseconds and kept in {@link #millis()} next to the row, so no object is built for them until
+ * a record is converted.
+ */
+public class ElfTokenizer implements Closeable {
+  private static final Logger log = LoggerFactory.getLogger(ElfTokenizer.class);
+  static final String FIELDS_DIRECTIVE = "#Fields:";
+  static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+  /**
+   * Value in {@link #millis()} for date and time columns that are empty, and for every other
+   * column.
+   */
+  public static final long NULL_MILLIS = Long.MIN_VALUE;
+
+  enum ColumnType {
+    STRING,
+    INTEGER,
+    LONG,
+    DOUBLE,
+    DATE,
+    TIME
+  }
+
+  private final Reader reader;
+  private char[] buffer;
+  private int position;
+  private int scanned;
+  private int limit;
+  private boolean eof;
+  private int lineStart;
+  private int lineEnd;
+  private boolean pendingLine;
+  private long lineNumber;
+
+  private String[] fields;
+  private ColumnType[] columnTypes;
+  private long[] millis;
+
+  public ElfTokenizer(Reader reader) {
+    this(reader, DEFAULT_BUFFER_SIZE);
+  }
+
+  ElfTokenizer(Reader reader, int bufferSize) {
+    this.reader = reader;
+    this.buffer = new char[bufferSize];
+  }
+
+  /**
+   * Method is used to determine the type of a field based on the field name.
+   *
+   * @param fieldName name of the field from the #Fields directive.
+   * @return The class of the values in the field.
+   */
+  static Class<?> fieldType(String fieldName) {
+    final Class<?> result;
+    if ("date".equals(fieldName)) {
+      result = LocalDate.class;
+    } else if ("time".equals(fieldName)) {
+      result = LocalTime.class;
+    } else if ("time-taken".equals(fieldName)) {
+      result = Double.class;
+    } else if (fieldName.contains("bytes")) {
+      result = Long.class;
+    } else if ("sc-status".equals(fieldName) || "sc-substatus".equals(fieldName) || "sc-win32-status".equals(fieldName)) {
+      result = Integer.class;
+    } else {
+      result = String.class;
+    }
+    return result;
+  }
+
+  static ColumnType columnType(Class<?> fieldType) {
+    final ColumnType result;
+    if (LocalDate.class.equals(fieldType)) {
+      result = ColumnType.DATE;
+    } else if (LocalTime.class.equals(fieldType)) {
+      result = ColumnType.TIME;
+    } else if (Double.class.equals(fieldType)) {
+      result = ColumnType.DOUBLE;
+    } else if (Long.class.equals(fieldType)) {
+      result = ColumnType.LONG;
+    } else if (Integer.class.equals(fieldType)) {
+      result = ColumnType.INTEGER;
+    } else {
+      result = ColumnType.STRING;
+    }
+    return result;
+  }
+
+  /**
+   * The fields from the last #Fields directive. The same array is returned until a #Fields
+   * directive with different fields is read, so a change can be detected by reference.
+   *
+   * @return field names in column order.
+   */
+  public String[] fields() {
+    return this.fields;
+  }
+
+  /**
+   * The dates and times of the last row returned by {@link #next()}, in column order. Dates are
+   * the epoch milliseconds of the start of the day and times the milliseconds since midnight. The
+   * array is reused for every row.
+   *
+   * @return milliseconds for the date and time columns, {@link #NULL_MILLIS} for the others.
+   */
+  public long[] millis() {
+    return this.millis;
+  }
+
+  /**
+   * The type of each field from the last #Fields directive.
+   *
+   * @return field name to field type, in column order.
+   */
+  public Map<String, Class<?>> fieldTypes() {
+    Map<String, Class<?>> result = new LinkedHashMap<>();
+    for (String field : this.fields) {
+      result.put(field, fieldType(field));
+    }
+    return result;
+  }
+
+  /**
+   * The number of lines read from the input.
+   *
+   * @return number of lines read.
+   */
+  public long lineNumber() {
+    return this.lineNumber;
+  }
+
+  /**
+   * Method is used to read the directives at the start of the file. The first record is left
+   * unread.
+   *
+   * @throws IOException thrown if the input cannot be read.
+   */
+  public void readDirectives() throws IOException {
+    while (readLine()) {
+      if (isDirective()) {
+        directive();
+      } else if (lineEnd > lineStart) {
+        this.pendingLine = true;
+        break;
+      }
+    }
+
+    if (null == this.fields) {
+      throw new DataException(
+          String.format("%s directive was not found.", FIELDS_DIRECTIVE)
+      );
+    }
+  }
+
+  /**
+   * Method reads the next record.
+   *
+   * @return Values for each field in column order. null if there are no more records.
+   * @throws IOException thrown if the input cannot be read.
+   */
+  public Object[] next() throws IOException {
+    while (this.pendingLine || readLine()) {
+      this.pendingLine = false;
+      if (isDirective()) {
+        directive();
+        continue;
+      }
+      if (lineEnd == lineStart) {
+        continue;
+      }
+      if (null == this.fields) {
+        throw new DataException(
+            String.format("Line %s was found before the %s directive.", this.lineNumber, FIELDS_DIRECTIVE)
+        );
+      }
+      return tokenize();
+    }
+    return null;
+  }
+
+  boolean isDirective() {
+    return lineEnd > lineStart && '#' == this.buffer[lineStart];
+  }
+
+  boolean startsWith(String prefix) {
+    if (lineEnd - lineStart < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (prefix.charAt(i) != this.buffer[lineStart + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  void directive() {
+    if (!startsWith(FIELDS_DIRECTIVE)) {
+      log.trace("directive() - Skipping directive on line {}", this.lineNumber);
+      return;
+    }
+    List<String> fields = new ArrayList<>();
+    int i = lineStart + FIELDS_DIRECTIVE.length();
+    while (i < lineEnd) {
+      while (i < lineEnd && isWhitespace(this.buffer[i])) {
+        i++;
+      }
+      final int start = i;
+      while (i < lineEnd && !isWhitespace(this.buffer[i])) {
+        i++;
+      }
+      if (i > start) {
+        fields.add(new String(this.buffer, start, i - start));
+      }
+    }
+    final String[] result = fields.toArray(new String[0]);
+    if (Arrays.equals(this.fields, result)) {
+      log.trace("directive() - Fields on line {} are unchanged.", this.lineNumber);
+      return;
+    }
+    log.trace("directive() - Found fields {} on line {}", fields, this.lineNumber);
+    this.fields = result;
+    this.columnTypes = new ColumnType[this.fields.length];
+    this.millis = new long[this.fields.length];
+    for (int f = 0; f < this.fields.length; f++) {
+      this.columnTypes[f] = columnType(fieldType(this.fields[f]));
+    }
+  }
+
+  static boolean isWhitespace(char c) {
+    return ' ' == c || '\t' == c;
+  }
+
+  Object[] tokenize() {
+    final Object[] row = new Object[this.fields.length];
+    Arrays.fill(this.millis, NULL_MILLIS);
+    final char[] buffer = this.buffer;
+    int column = 0;
+    int i = lineStart;
+
+    while (column < row.length) {
+      while (i < lineEnd && isWhitespace(buffer[i])) {
+        i++;
+      }
+      if (i >= lineEnd) {
+        break;
+      }
+
+      if ('"' == buffer[i]) {
+        final int start = i + 1;
+        int end = lineEnd;
+        boolean escaped = false;
+        int j = start;
+        while (j < lineEnd) {
+          if ('"' == buffer[j]) {
+            if (j + 1 < lineEnd && '"' == buffer[j + 1]) {
+              escaped = true;
+              j += 2;
+              continue;
+            }
+            end = j;
+            break;
+          }
+          j++;
+        }
+        i = end < lineEnd ? end + 1 : lineEnd;
+        if (escaped) {
+          String value = new String(buffer, start, end - start).replace("\"\"", "\"");
+          row[column] = ColumnType.STRING == this.columnTypes[column] ? value : parse(column, value.toCharArray(), 0, value.length());
+        } else {
+          row[column] = ColumnType.STRING == this.columnTypes[column] ? new String(buffer, start, end - start) : parse(column, buffer, start, end);
+        }
+      } else {
+        final int start = i;
+        while (i < lineEnd && !isWhitespace(buffer[i])) {
+          i++;
+        }
+        if (1 == i - start && '-' == buffer[start]) {
+          row[column] = null;
+        } else {
+          row[column] = parse(column, buffer, start, i);
+        }
+      }
+      column++;
+    }
+
+    while (i < lineEnd && isWhitespace(buffer[i])) {
+      i++;
+    }
+    if (i < lineEnd || column < row.length) {
+      throw new DataException(
+          String.format(
+              "Line %s does not have the %s field(s) declared by the %s directive.",
+              this.lineNumber,
+              row.length,
+              FIELDS_DIRECTIVE
+          )
+      );
+    }
+
+    return row;
+  }
+
+  Object parse(int column, char[] chars, int start, int end) {
+    try {
+      final Object result;
+      switch (this.columnTypes[column]) {
+        case STRING:
+          result = new String(chars, start, end - start);
+          break;
+        case INTEGER:
+          final long intValue = parseLong(chars, start, end);
+          if (intValue < Integer.MIN_VALUE || intValue > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value is out of range for an int.");
+          }
+          result = (int) intValue;
+          break;
+        case LONG:
+          result = parseLong(chars, start, end);
+          break;
+        case DOUBLE:
+          result = parseDouble(chars, start, end);
+          break;
+        case DATE:
+          this.millis[column] = parseDate(chars, start, end) * MILLIS_PER_DAY;
+          result = null;
+          break;
+        case TIME:
+          this.millis[column] = parseTime(chars, start, end);
+          result = null;
+          break;
+        default:
+          throw new UnsupportedOperationException(
+              String.format("%s is not a supported column type.", this.columnTypes[column])
+          );
+      }
+      return result;
+    } catch (NumberFormatException ex) {
+      throw new DataException(
+          String.format(
+              "Could not parse '%s' for field '%s' on line %s",
+              new String(chars, start, end - start),
+              this.fields[column],
+              this.lineNumber
+          ),
+          ex
+      );
+    }
+  }
+
+  static NumberFormatException invalid(char[] chars, int start, int end) {
+    return new NumberFormatException(
+        String.format("'%s' is not valid.", new String(chars, start, end - start))
+    );
+  }
+
+  static long parseLong(char[] chars, int start, int end) {
+    if (start >= end) {
+      throw invalid(chars, start, end);
+    }
+    int i = start;
+    boolean negative = false;
+    if ('-' == chars[i] || '+' == chars[i]) {
+      negative = '-' == chars[i];
+      i++;
+      if (i == end) {
+        throw invalid(chars, start, end);
+      }
+    }
+    long result = 0;
+    for (; i < end; i++) {
+      final int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(chars, start, end);
+      }
+      if (result > (Long.MAX_VALUE - digit) / 10) {
+        throw invalid(chars, start, end);
+      }
+      result = result * 10 + digit;
+    }
+    return negative ? -result : result;
+  }
+
+  static double parseDouble(char[] chars, int start, int end) {
+    for (int i = start; i < end; i++) {
+      final char c = chars[i];
+      if ((c < '0' || c > '9') && '-' != c) {
+        return Double.parseDouble(new String(chars, start, end - start));
+      }
+    }
+    return (double) parseLong(chars, start, end);
+  }
+
+  static int digits(char[] chars, int start, int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      final int digit = chars[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(chars, start, end);
+      }
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
+  /**
+   * Parses a yyyy-MM-dd date to the number of days since the epoch.
+   */
+  static long parseDate(char[] chars, int start, int end) {
+    if (10 != end - start || '-' != chars[start + 4] || '-' != chars[start + 7]) {
+      throw invalid(chars, start, end);
+    }
+    final int year = digits(chars, start, start + 4);
+    final int month = digits(chars, start + 5, start + 7);
+    final int day = digits(chars, start + 8, start + 10);
+    if (month < 1 || month > 12 || day < 1 || day > Month.of(month).length(Year.isLeap(year))) {
+      throw invalid(chars, start, end);
+    }
+    return epochDay(year, month, day);
+  }
+
+  /**
+   * Converts a date in the proleptic Gregorian calendar to the number of days since the epoch.
+   * See http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+   */
+  static long epochDay(int year, int month, int day) {
+    final long y = month <= 2 ? year - 1 : year;
+    final long era = (y >= 0 ? y : y - 399) / 400;
+    final long yearOfEra = y - era * 400;
+    final long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Parses a HH:mm[:ss[.SSS]] time to the number of milliseconds since midnight.
+   */
+  static long parseTime(char[] chars, int start, int end) {
+    int i = start;
+    long result = 0;
+    int component = 0;
+    while (i < end && component < 3) {
+      final int componentStart = i;
+      while (i < end && ':' != chars[i] && '.' != chars[i]) {
+        i++;
+      }
+      if (i == componentStart) {
+        throw invalid(chars, start, end);
+      }
+      final int value = digits(chars, componentStart, i);
+      final int max = 0 == component ? 23 : 59;
+      if (value > max) {
+        throw invalid(chars, start, end);
+      }
+      result = result * 60 + value;
+      component++;
+      if (i < end && '.' == chars[i]) {
+        break;
+      }
+      if (i < end) {
+        i++;
+      }
+    }
+    if (component < 2) {
+      throw invalid(chars, start, end);
+    }
+    for (; component < 3; component++) {
+      result *= 60;
+    }
+    result *= 1000;
+
+    if (i < end && '.' == chars[i]) {
+      i++;
+      int millis = 0;
+      int scale = 0;
+      for (; i < end && scale < 3; i++, scale++) {
+        final int digit = chars[i] - '0';
+        if (digit < 0 || digit > 9) {
+          throw invalid(chars, start, end);
+        }
+        millis = millis * 10 + digit;
+      }
+      for (; scale < 3; scale++) {
+        millis *= 10;
+      }
+      result += millis;
+      while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+        i++;
+      }
+    }
+    if (i < end) {
+      throw invalid(chars, start, end);
+    }
+    return result;
+  }
+
+  boolean readLine() throws IOException {
+    while (true) {
+      for (int i = this.scanned; i < this.limit; i++) {
+        if ('\n' == this.buffer[i]) {
+          setLine(this.position, i);
+          this.position = i + 1;
+          this.scanned = this.position;
+          return true;
+        }
+      }
+      this.scanned = this.limit;
+
+      if (this.eof) {
+        if (this.position < this.limit) {
+          setLine(this.position, this.limit);
+          this.position = this.limit;
+          this.scanned = this.limit;
+          return true;
+        }
+        return false;
+      }
+      fill();
+    }
+  }
+
+  private void setLine(int start, int end) {
+    this.lineStart = start;
+    this.lineEnd = end > start && '\r' == this.buffer[end - 1] ? end - 1 : end;
+    this.lineNumber++;
+  }
+
+  private void fill() throws IOException {
+    final int remaining = this.limit - this.position;
+    if (this.position > 0) {
+      System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+      this.scanned -= this.position;
+      this.position = 0;
+      this.limit = remaining;
+    } else if (this.limit == this.buffer.length) {
+      char[] buffer = new char[this.buffer.length * 2];
+      System.arraycopy(this.buffer, 0, buffer, 0, this.limit);
+      log.trace("fill() - Growing buffer to {} char(s).", buffer.length);
+      this.buffer = buffer;
+    }
+
+    final int read = this.reader.read(this.buffer, this.limit, this.buffer.length - this.limit);
+    if (read < 0) {
+      this.eof = true;
+    } else {
+      this.limit += read;
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.reader.close();
+  }
+}
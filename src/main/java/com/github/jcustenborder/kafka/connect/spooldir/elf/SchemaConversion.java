@@ -23,36 +23,76 @@ import org.apache.kafka.connect.data.Struct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
+import java.util.Map;
 
 public class SchemaConversion {
   private static final Logger log = LoggerFactory.getLogger(SchemaConversion.class);
+  /**
+   * Number of records that are validated before the conversion is considered proven. Every field
+   * is validated by Struct.put() so struct.validate() only guards against the converters missing
+   * a required field.
+   */
+  static final int VALIDATE_RECORD_COUNT = 100;
   private final Schema valueSchema;
-  private final List<LogFieldConverter> valueConverters;
+  private final LogFieldConverter[] valueConverters;
+  private final String[] logFieldNames;
+  private int validateRemaining = VALIDATE_RECORD_COUNT;
 
-  SchemaConversion(Schema valueSchema, List<LogFieldConverter> valueConverters) {
+  SchemaConversion(Schema valueSchema, LogFieldConverter[] valueConverters, String[] logFieldNames) {
     this.valueSchema = valueSchema;
     this.valueConverters = valueConverters;
+    this.logFieldNames = logFieldNames;
   }
 
+  /**
+   * The log fields in the order the converters expect them in the row passed to
+   * {@link #convert(Object[], long[])}.
+   *
+   * @return log field names in row order.
+   */
+  public String[] logFieldNames() {
+    return this.logFieldNames;
+  }
+
+  public SchemaAndValue convert(Object[] row) {
+    return convert(row, null);
+  }
 
-  static SchemaAndValue convert(Schema schema, List<LogFieldConverter> converters, LogEntry entry) {
+  /**
+   * Method is used to convert a row read by the {@link ElfTokenizer}.
+   *
+   * @param row    values in row order.
+   * @param millis dates and times of the row, or null if the row holds LocalDate and LocalTime
+   *               values.
+   * @return the converted record.
+   */
+  public SchemaAndValue convert(Object[] row, long[] millis) {
     final SchemaAndValue result;
-    if (null == schema) {
+    if (null == this.valueSchema) {
       result = SchemaAndValue.NULL;
     } else {
-      Struct struct = new Struct(schema);
-      for (LogFieldConverter converter : converters) {
-        converter.convert(entry, struct);
+      Struct struct = new Struct(this.valueSchema);
+      for (LogFieldConverter converter : this.valueConverters) {
+        converter.convert(row, millis, struct);
       }
-      struct.validate();
-      result = new SchemaAndValue(schema, struct);
+      if (this.validateRemaining > 0) {
+        struct.validate();
+        this.validateRemaining--;
+        if (0 == this.validateRemaining) {
+          log.trace("convert() - Conversion validated for {} record(s). Skipping validation.", VALIDATE_RECORD_COUNT);
+        }
+      }
+      result = new SchemaAndValue(this.valueSchema, struct);
     }
     return result;
   }
 
   public SchemaAndValue convert(LogEntry entry) {
-    final SchemaAndValue value = convert(this.valueSchema, this.valueConverters, entry);
-    return value;
+    final Map<String, Object> fieldData = entry.fieldData();
+    final Object[] row = new Object[this.logFieldNames.length];
+    for (int i = 0; i < this.logFieldNames.length; i++) {
+      row[i] = fieldData.get(this.logFieldNames[i]);
+    }
+    return convert(row);
   }
 }
@@ -27,15 +27,20 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class SchemaConversionBuilder {
   private static final Logger log = LoggerFactory.getLogger(SchemaConversionBuilder.class);
-  final ElfParser parser;
+  final Map<String, Class<?>> fieldTypes;
 
   public SchemaConversionBuilder(ElfParser parser) {
-    this.parser = parser;
+    this(parser.fieldTypes());
+  }
+
+  public SchemaConversionBuilder(Map<String, Class<?>> fieldTypes) {
+    this.fieldTypes = fieldTypes;
   }
 
   static String normalizeFieldName(String fieldName) {
@@ -48,6 +53,21 @@ public class SchemaConversionBuilder {
   }
 
 
+  /**
+   * Method is used to generate a key that identifies the layout of a set of fields.
+   *
+   * @param fieldTypes log field name to field type, in column order.
+   * @return List containing each field name followed by its type.
+   */
+  static List<Object> signature(Map<String, Class<?>> fieldTypes) {
+    List<Object> result = new ArrayList<>(fieldTypes.size() * 2);
+    for (Map.Entry<String, Class<?>> entry : fieldTypes.entrySet()) {
+      result.add(entry.getKey());
+      result.add(entry.getValue());
+    }
+    return result;
+  }
+
   public SchemaConversion build() {
     log.trace("build() - Building SchemaConversion");
 
@@ -57,7 +77,7 @@ public class SchemaConversionBuilder {
     LogFieldConverterFactory factory = new LogFieldConverterFactory();
     List<LogFieldConverter> valueConverters = new ArrayList<>();
 
-    for (Map.Entry<String, Class<?>> entry : this.parser.fieldTypes().entrySet()) {
+    for (Map.Entry<String, Class<?>> entry : this.fieldTypes.entrySet()) {
       final String logFieldName = entry.getKey();
       final Class<?> logFieldClass = entry.getValue();
       final String connectFieldName = normalizeFieldName(logFieldName);
@@ -71,7 +91,7 @@ public class SchemaConversionBuilder {
       valueConverters.add(converter);
     }
 
-    if (LocalDate.class.equals(this.parser.fieldTypes().get("date")) && LocalTime.class.equals(this.parser.fieldTypes().get("time"))) {
+    if (LocalDate.class.equals(this.fieldTypes.get("date")) && LocalTime.class.equals(this.fieldTypes.get("time"))) {
       log.trace("build() - found date and time field. Creating datetime field.");
       final LogFieldConverter converter = factory.createDateTime(
           valueBuilder,
@@ -84,6 +104,17 @@ public class SchemaConversionBuilder {
 
     final Schema valueSchema = valueBuilder.build();
 
-    return new SchemaConversion(valueSchema, valueConverters);
+    final Map<String, Integer> indexes = new LinkedHashMap<>();
+    for (LogFieldConverter converter : valueConverters) {
+      converter.bind(indexes);
+    }
+    final String[] logFieldNames = indexes.keySet().toArray(new String[0]);
+    log.trace("build() - Row layout {}", indexes);
+
+    return new SchemaConversion(
+        valueSchema,
+        valueConverters.toArray(new LogFieldConverter[0]),
+        logFieldNames
+    );
   }
 }
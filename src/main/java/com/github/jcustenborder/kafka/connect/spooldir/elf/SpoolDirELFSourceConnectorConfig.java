@@ -16,17 +16,52 @@
 package com.github.jcustenborder.kafka.connect.spooldir.elf;
 
 import com.github.jcustenborder.kafka.connect.spooldir.AbstractSourceConnectorConfig;
+import com.github.jcustenborder.kafka.connect.utils.config.ConfigKeyBuilder;
+import com.github.jcustenborder.kafka.connect.utils.config.ConfigUtils;
 import org.apache.kafka.common.config.ConfigDef;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 class SpoolDirELFSourceConnectorConfig extends AbstractSourceConnectorConfig {
+  public static final String ELF_NATIVE_TOKENIZER_ENABLED_CONF = "elf.native.tokenizer.enabled";
+  static final String ELF_NATIVE_TOKENIZER_ENABLED_DOC = "Flag to determine if files should be read with the built in " +
+      "tokenizer instead of the extended log format parser. The built in tokenizer splits lines directly on a character " +
+      "buffer and parses dates and times straight to epoch milliseconds. Field types are determined by the field name. " +
+      "`date` and `time` are parsed as dates and times, `time-taken` as a double, fields containing `bytes` as a long, " +
+      "`sc-status`, `sc-substatus` and `sc-win32-status` as an int. All other fields are strings. A `#Fields` directive " +
+      "part way through a file changes the schema of the records that follow it.";
+  public static final String ELF_CHARSET_CONF = "elf.file.charset";
+  static final String ELF_CHARSET_DOC = "Character set to read the file with when `" +
+      ELF_NATIVE_TOKENIZER_ENABLED_CONF + "` is enabled.";
+  static final String ELF_GROUP = "ELF Parsing";
+
+  public final boolean nativeTokenizerEnabled;
+  public final Charset charset;
 
   public SpoolDirELFSourceConnectorConfig(Map<String, ?> settings) {
     super(config(true), settings, true);
+    this.nativeTokenizerEnabled = this.getBoolean(ELF_NATIVE_TOKENIZER_ENABLED_CONF);
+    this.charset = ConfigUtils.charset(this, ELF_CHARSET_CONF);
   }
 
   public static ConfigDef config(boolean bufferedInputStream) {
-    return AbstractSourceConnectorConfig.config(bufferedInputStream);
+    return AbstractSourceConnectorConfig.config(bufferedInputStream)
+        .define(
+            ConfigKeyBuilder.of(ELF_NATIVE_TOKENIZER_ENABLED_CONF, ConfigDef.Type.BOOLEAN)
+                .documentation(ELF_NATIVE_TOKENIZER_ENABLED_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(false)
+                .group(ELF_GROUP)
+                .build()
+        ).define(
+            ConfigKeyBuilder.of(ELF_CHARSET_CONF, ConfigDef.Type.STRING)
+                .documentation(ELF_CHARSET_DOC)
+                .importance(ConfigDef.Importance.LOW)
+                .defaultValue(StandardCharsets.UTF_8.name())
+                .group(ELF_GROUP)
+                .build()
+        );
   }
 }
@@ -20,8 +20,11 @@ import com.github.jcustenborder.kafka.connect.spooldir.InputFile;
 import com.github.jcustenborder.parsers.elf.ElfParser;
 import com.github.jcustenborder.parsers.elf.ElfParserBuilder;
 import com.github.jcustenborder.parsers.elf.LogEntry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,13 +32,20 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 public class SpoolDirELFSourceTask extends AbstractSourceTask<SpoolDirELFSourceConnectorConfig> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirELFSourceTask.class);
+  static final int CONVERSION_CACHE_SIZE = 64;
+  final Cache<List<Object>, SchemaConversion> conversions = CacheBuilder.newBuilder()
+      .maximumSize(CONVERSION_CACHE_SIZE)
+      .build();
   ElfParser parser;
   ElfParserBuilder parserBuilder;
+  ElfTokenizer tokenizer;
+  String[] fields;
   SchemaConversion conversion;
   long offset;
 
@@ -56,17 +66,25 @@ public class SpoolDirELFSourceTask extends AbstractSourceTask<SpoolDirELFSourceC
     if (null != this.parser) {
       log.trace("configure() - Closing existing parser.");
       this.parser.close();
+      this.parser = null;
+    }
+    this.tokenizer = null;
+
+    if (this.config.nativeTokenizerEnabled) {
+      this.tokenizer = new ElfTokenizer(inputFile.openInputStreamReader(this.config.charset));
+      this.tokenizer.readDirectives();
+      fieldsChanged();
+    } else {
+      InputStream inputStream = inputFile.openStream();
+      this.parser = this.parserBuilder.build(inputStream);
+      this.conversion = conversion(this.parser.fieldTypes());
     }
-    InputStream inputStream = inputFile.openStream();
-    this.parser = this.parserBuilder.build(inputStream);
-    SchemaConversionBuilder builder = new SchemaConversionBuilder(this.parser);
-    this.conversion = builder.build();
 
     this.offset = -1;
 
     if (null != lastOffset) {
       int skippedRecords = 1;
-      while (null != next() && skippedRecords <= lastOffset) {
+      while (skip() && skippedRecords <= lastOffset) {
         skippedRecords++;
       }
       log.trace("configure() - Skipped {} record(s).", skippedRecords);
@@ -74,19 +92,65 @@ public class SpoolDirELFSourceTask extends AbstractSourceTask<SpoolDirELFSourceC
     }
   }
 
+  SchemaConversion conversion(Map<String, Class<?>> fieldTypes) {
+    final List<Object> signature = SchemaConversionBuilder.signature(fieldTypes);
+    SchemaConversion result = this.conversions.getIfPresent(signature);
+    if (null == result) {
+      log.trace("conversion() - Building conversion for {}", fieldTypes.keySet());
+      SchemaConversionBuilder builder = new SchemaConversionBuilder(fieldTypes);
+      result = builder.build();
+      this.conversions.put(signature, result);
+    }
+    return result;
+  }
+
+  void fieldsChanged() {
+    this.fields = this.tokenizer.fields();
+    log.debug("fieldsChanged() - Fields changed to {} on line {}", this.fields, this.tokenizer.lineNumber());
+    this.conversion = conversion(this.tokenizer.fieldTypes());
+    if (!Arrays.equals(this.fields, this.conversion.logFieldNames())) {
+      throw new DataException(
+          String.format("Fields %s contain duplicate names.", Arrays.toString(this.fields))
+      );
+    }
+  }
+
   LogEntry next() throws IOException {
     this.offset++;
     return this.parser.next();
   }
 
+  Object[] nextRow() throws IOException {
+    this.offset++;
+    return this.tokenizer.next();
+  }
+
+  boolean skip() throws IOException {
+    return null != this.tokenizer ? null != nextRow() : null != next();
+  }
+
   @Override
   protected List<SourceRecord> process() {
     int recordCount = 0;
-    List<SourceRecord> records = new ArrayList<>(this.config.batchSize);
+    List<SourceRecord> records = new ArrayList<>(batchSize());
 
-    LogEntry entry;
     try {
-      while (null != (entry = next()) && recordCount < this.config.batchSize) {
+      if (null != this.tokenizer) {
+        Object[] row;
+        while (recordCount < batchSize() && null != (row = nextRow())) {
+          if (this.fields != this.tokenizer.fields()) {
+            fieldsChanged();
+          }
+          SchemaAndValue value = conversion.convert(row, this.tokenizer.millis());
+          SourceRecord record = record(SchemaAndValue.NULL, value, null);
+          records.add(record);
+          recordCount++;
+        }
+        return records;
+      }
+
+      LogEntry entry;
+      while (recordCount < batchSize() && null != (entry = next())) {
         log.trace("process() - Processing LogEntry: {}", entry);
         SchemaAndValue value = conversion.convert(entry);
         SourceRecord record = record(SchemaAndValue.NULL, value, null);
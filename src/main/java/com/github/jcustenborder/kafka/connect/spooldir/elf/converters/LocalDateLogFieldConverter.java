@@ -27,6 +27,9 @@ public class LocalDateLogFieldConverter extends LogFieldConverter {
 
   @Override
   protected Object convert(Object input) {
+    if (input instanceof java.util.Date) {
+      return input;
+    }
     final LocalDate localDate = (LocalDate) input;
     final Instant instant = localDate.atStartOfDay(ZONE_ID).toInstant();
     return Date.from(instant);
@@ -28,6 +28,9 @@ public class LocalTimeLogFieldConverter extends LogFieldConverter {
 
   @Override
   protected Object convert(Object input) {
+    if (input instanceof java.util.Date) {
+      return input;
+    }
     final LocalTime localTime = (LocalTime) input;
     final Instant instant = localTime.atDate(EPOCH_DATE).toInstant(ZoneOffset.UTC);
     return Date.from(instant);
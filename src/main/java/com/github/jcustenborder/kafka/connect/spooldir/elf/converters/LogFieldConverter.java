@@ -15,16 +15,20 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir.elf.converters;
 
-import com.github.jcustenborder.parsers.elf.LogEntry;
+import com.github.jcustenborder.kafka.connect.spooldir.elf.ElfTokenizer;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Struct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Date;
+import java.util.Map;
+
 public abstract class LogFieldConverter {
   private static final Logger log = LoggerFactory.getLogger(LogFieldConverter.class);
   protected final String logFieldName;
   protected final Field field;
+  protected int index = -1;
 
   protected abstract Object convert(Object input);
 
@@ -33,8 +37,48 @@ public abstract class LogFieldConverter {
     this.field = field;
   }
 
-  public void convert(LogEntry logEntry, Struct struct) {
-    final Object input = logEntry.fieldData().get(this.logFieldName);
+  /**
+   * Returns the index of the log field in the row, assigning the next index if the field has not
+   * been seen yet.
+   *
+   * @param indexes log field name to row index.
+   * @param logFieldName name of the log field.
+   * @return index of the log field within the row.
+   */
+  protected static int index(Map<String, Integer> indexes, String logFieldName) {
+    Integer result = indexes.get(logFieldName);
+    if (null == result) {
+      result = indexes.size();
+      indexes.put(logFieldName, result);
+    }
+    return result;
+  }
+
+  /**
+   * Method is used to resolve the position of the log field(s) this converter reads within the row
+   * passed to {@link #convert(Object[], long[], Struct)}.
+   *
+   * @param indexes log field name to row index.
+   */
+  public void bind(Map<String, Integer> indexes) {
+    this.index = index(indexes, this.logFieldName);
+  }
+
+  /**
+   * Method is used to convert a row.
+   *
+   * @param row    values in row order.
+   * @param millis dates and times of the row from {@link ElfTokenizer#millis()}, or null if the
+   *               row holds the LocalDate and LocalTime values from a LogEntry.
+   * @param struct struct to set the field on.
+   */
+  public void convert(Object[] row, long[] millis, Struct struct) {
+    final Object input;
+    if (null != millis && ElfTokenizer.NULL_MILLIS != millis[this.index]) {
+      input = new Date(millis[this.index]);
+    } else {
+      input = row[this.index];
+    }
     final Object output;
     if (null == input) {
       output = null;
@@ -45,5 +89,4 @@ public abstract class LogFieldConverter {
     log.trace("convert() - Setting {} to {}", field.name(), output);
     struct.put(this.field, output);
   }
-
 }
@@ -15,7 +15,7 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir.elf.converters;
 
-import com.github.jcustenborder.parsers.elf.LogEntry;
+import com.github.jcustenborder.kafka.connect.spooldir.elf.ElfTokenizer;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Struct;
 
@@ -24,10 +24,13 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.util.Map;
 
 public class TimestampLogFieldConverter extends LogFieldConverter {
   private final String timeField;
   private final String dateField;
+  private int timeIndex = -1;
+  private int dateIndex = -1;
 
   public TimestampLogFieldConverter(Field field, String timeField, String dateField) {
     super(null, field);
@@ -41,10 +44,28 @@ public class TimestampLogFieldConverter extends LogFieldConverter {
   }
 
   @Override
-  public void convert(LogEntry logEntry, Struct struct) {
-    final LocalDate date = (LocalDate) logEntry.fieldData().get(this.dateField);
-    final LocalTime time = (LocalTime) logEntry.fieldData().get(this.timeField);
+  public void bind(Map<String, Integer> indexes) {
+    this.dateIndex = index(indexes, this.dateField);
+    this.timeIndex = index(indexes, this.timeField);
+  }
+
+  @Override
+  public void convert(Object[] row, long[] millis, Struct struct) {
+    if (null == millis) {
+      // Rows built from a LogEntry hold the LocalDate and LocalTime from the parser.
+      convert((LocalDate) row[this.dateIndex], (LocalTime) row[this.timeIndex], struct);
+      return;
+    }
+    final long date = millis[this.dateIndex];
+    final long time = millis[this.timeIndex];
+    if (ElfTokenizer.NULL_MILLIS == date || ElfTokenizer.NULL_MILLIS == time) {
+      struct.put(this.field, null);
+    } else {
+      struct.put(this.field, new Date(date + time));
+    }
+  }
 
+  void convert(LocalDate date, LocalTime time, Struct struct) {
     final Object value;
 
     if (null == date || null == time) {
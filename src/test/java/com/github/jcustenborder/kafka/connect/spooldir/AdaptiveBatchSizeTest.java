@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AdaptiveBatchSizeTest {
+  static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Test
+  public void initialSize() {
+    assertEquals(AdaptiveBatchSize.INITIAL_SIZE, new AdaptiveBatchSize(1000, 1024, 1000).size());
+    assertEquals(10, new AdaptiveBatchSize(10, 1024, 1000).size());
+  }
+
+  @Test
+  public void growsToBatchSize() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 1024 * 1024, 1000);
+    batchSize.update(100, 100 * 10, MS);
+    assertEquals(200, batchSize.size(), "Size should at most double.");
+    batchSize.update(200, 200 * 10, 2 * MS);
+    batchSize.update(400, 400 * 10, 4 * MS);
+    batchSize.update(800, 800 * 10, 8 * MS);
+    assertEquals(1000, batchSize.size());
+  }
+
+  @Test
+  public void limitedByBytes() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 1024 * 1024, 1000);
+    batchSize.update(100, 100 * 50 * 1024, MS);
+    assertEquals(20, batchSize.size());
+  }
+
+  @Test
+  public void limitedByLatency() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 1024 * 1024, 100);
+    batchSize.update(100, 100, 100 * 5 * MS);
+    assertEquals(20, batchSize.size());
+  }
+
+  @Test
+  public void neverZero() {
+    AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 1, 1);
+    batchSize.update(1, 1024 * 1024, 1000 * MS);
+    assertEquals(1, batchSize.size());
+    batchSize.update(0, 0, 0);
+    assertEquals(1, batchSize.size());
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import io.confluent.connect.avro.AvroData;
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.jcustenborder.kafka.connect.utils.AssertSchema.assertSchema;
+import static com.github.jcustenborder.kafka.connect.utils.AssertStruct.assertStruct;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ConnectDatumReaderTest {
+  static final File INPUT_FILE = new File("src/test/resources/com/github/jcustenborder/kafka/connect/spooldir/avro/FieldsMatch.data");
+
+  @Test
+  public void matchesAvroData() throws IOException {
+    AvroData avroData = new AvroData(1024);
+
+    List<SchemaAndValue> expected = new ArrayList<>();
+    try (DataFileReader<GenericContainer> reader = new DataFileReader<>(INPUT_FILE, new GenericDatumReader<>())) {
+      while (reader.hasNext()) {
+        expected.add(avroData.toConnectData(reader.getSchema(), reader.next()));
+      }
+    }
+    assertFalse(expected.isEmpty(), "expected should not be empty.");
+
+    ConnectDatumReader datumReader = new ConnectDatumReader(avroData, 10);
+    List<Object> actual = new ArrayList<>();
+    try (DataFileReader<Object> reader = new DataFileReader<>(INPUT_FILE, datumReader)) {
+      while (reader.hasNext()) {
+        actual.add(reader.next());
+      }
+    }
+
+    assertEquals(expected.size(), actual.size(), "record count does not match.");
+    for (int i = 0; i < expected.size(); i++) {
+      assertSchema(expected.get(i).schema(), datumReader.connectSchema(), String.format("index:%s", i));
+      assertStruct((Struct) expected.get(i).value(), (Struct) actual.get(i), String.format("index:%s", i));
+    }
+  }
+
+  @Test
+  public void conversionCachedByFingerprint() throws IOException {
+    final Schema writerSchema;
+    try (DataFileReader<GenericContainer> reader = new DataFileReader<>(INPUT_FILE, new GenericDatumReader<>())) {
+      writerSchema = reader.getSchema();
+    }
+    ConnectDatumReader datumReader = new ConnectDatumReader(new AvroData(10), 10);
+    datumReader.setSchema(new Schema.Parser().parse(writerSchema.toString()));
+    org.apache.kafka.connect.data.Schema first = datumReader.connectSchema();
+    datumReader.setSchema(new Schema.Parser().parse(writerSchema.toString()));
+    assertSame(first, datumReader.connectSchema(), "connectSchema() should be reused for the same fingerprint.");
+  }
+}
@@ -15,12 +15,15 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir;
 
+import com.google.common.io.Files;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Timestamp;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -57,5 +60,58 @@ public class CsvSchemaGeneratorTest extends AbstractSchemaGeneratorTest {
     assertSchema(expectedValueSchema, kvp.getValue(), "value schema does not match.");
   }
 
+  @Test
+  public void inferTypes() throws IOException {
+    File inputFile = new File("src/test/resources/com/github/jcustenborder/kafka/connect/spooldir/csv/FieldsMatch.data");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_FIRST_ROW_AS_HEADER_CONF, "true");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_INFER_TYPES_CONF, "true");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_NULL_FIELD_INDICATOR_CONF, "BOTH");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.PARSER_TIMESTAMP_DATE_FORMATS_CONF, "yyyy-MM-dd'T'HH:mm:ss'Z'");
+    CsvSchemaGenerator schemaGenerator = new CsvSchemaGenerator(settings);
+    Map.Entry<Schema, Schema> kvp = schemaGenerator.generate(inputFile, Arrays.asList("id"));
+    final Schema expectedKeySchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Key")
+        .field("id", Schema.INT32_SCHEMA)
+        .build();
 
+    final Schema expectedValueSchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Value")
+        .field("id", Schema.INT32_SCHEMA)
+        .field("first_name", Schema.STRING_SCHEMA)
+        .field("last_name", Schema.STRING_SCHEMA)
+        .field("email", Schema.STRING_SCHEMA)
+        .field("gender", Schema.STRING_SCHEMA)
+        .field("ip_address", Schema.STRING_SCHEMA)
+        .field("last_login", Timestamp.builder().optional().build())
+        .field("account_balance", Schema.FLOAT64_SCHEMA)
+        .field("country", Schema.STRING_SCHEMA)
+        .field("favorite_color", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    assertSchema(expectedKeySchema, kvp.getKey(), "key schema does not match.");
+    assertSchema(expectedValueSchema, kvp.getValue(), "value schema does not match.");
+  }
+
+  @Test
+  public void nullOutsideSample() throws IOException {
+    File inputFile = new File(this.tempRoot, "nulls.csv");
+    StringBuilder builder = new StringBuilder("id,name\n");
+    for (int i = 1; i < 100; i++) {
+      builder.append(i).append(",name").append(i).append('\n');
+    }
+    builder.append("100,\n");
+    Files.write(builder.toString(), inputFile, StandardCharsets.UTF_8);
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_FIRST_ROW_AS_HEADER_CONF, "true");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_INFER_TYPES_CONF, "true");
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.SCHEMA_GENERATION_SAMPLE_SIZE_CONF, "1");
+    CsvSchemaGenerator schemaGenerator = new CsvSchemaGenerator(settings);
+    Map.Entry<Schema, Schema> kvp = schemaGenerator.generate(inputFile, Arrays.asList("id"));
+
+    final Schema expectedValueSchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Value")
+        .field("id", Schema.INT32_SCHEMA)
+        .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    assertSchema(expectedValueSchema, kvp.getValue(), "value schema does not match.");
+  }
 }
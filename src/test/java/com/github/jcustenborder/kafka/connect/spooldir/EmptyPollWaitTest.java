@@ -0,0 +1,95 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.io.Files;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmptyPollWaitTest {
+  File inputPath;
+  ScheduledExecutorService executorService;
+
+  @BeforeEach
+  public void before() {
+    this.inputPath = Files.createTempDir();
+    this.executorService = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @AfterEach
+  public void after() {
+    this.executorService.shutdownNow();
+  }
+
+  @Test
+  public void fixedWait() {
+    EmptyPollWait wait = new EmptyPollWait(500, 0, this.inputPath, false, false, ".PROCESSING");
+    assertEquals(500, wait.nextWaitMs());
+    wait.attempts = 10;
+    assertEquals(500, wait.nextWaitMs());
+  }
+
+  @Test
+  public void backoff() {
+    EmptyPollWait wait = new EmptyPollWait(100, 1000, this.inputPath, false, false, ".PROCESSING", new Random(1234));
+    long[] ceilings = {100, 200, 400, 800, 1000, 1000};
+    for (long ceiling : ceilings) {
+      for (int i = 0; i < 100; i++) {
+        final long waitMs = wait.nextWaitMs();
+        assertTrue(waitMs >= ceiling / 2 && waitMs <= ceiling, String.format("%s should be between %s and %s", waitMs, ceiling / 2, ceiling));
+      }
+      wait.attempts++;
+    }
+    wait.attempts = EmptyPollWait.MAX_ATTEMPTS;
+    assertTrue(wait.nextWaitMs() <= 1000);
+    wait.reset();
+    assertTrue(wait.nextWaitMs() <= 100);
+  }
+
+  @Test
+  public void wakesUpOnNewFile() throws InterruptedException {
+    try (EmptyPollWait wait = new EmptyPollWait(30000, 0, this.inputPath, true, false, ".PROCESSING")) {
+      this.executorService.schedule(() -> {
+        Files.touch(new File(this.inputPath, "input.PROCESSING"));
+        Files.touch(new File(this.inputPath, "input.csv"));
+        return null;
+      }, 250, TimeUnit.MILLISECONDS);
+      final long started = System.nanoTime();
+      assertTrue(wait.await(), "await() should have been woken up.");
+      assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(20), "await() should return before the wait.");
+    }
+  }
+
+  @Test
+  public void ignoresProcessingFlags() throws InterruptedException, IOException {
+    try (EmptyPollWait wait = new EmptyPollWait(500, 0, this.inputPath, true, false, ".PROCESSING")) {
+      Files.touch(new File(this.inputPath, "input.csv.PROCESSING"));
+      assertFalse(wait.await());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import static com.github.jcustenborder.kafka.connect.utils.AssertSchema.assertSchema;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class FieldTypeInferenceTest {
+
+  static SimpleDateFormat[] dateFormats() {
+    SimpleDateFormat[] result = new SimpleDateFormat[]{
+        new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss"),
+        new SimpleDateFormat("yyyy-MM-dd")
+    };
+    for (SimpleDateFormat dateFormat : result) {
+      dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+    return result;
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> schema() {
+    Map<List<String>, Schema> tests = new LinkedHashMap<>();
+    tests.put(Arrays.asList("true", "FALSE"), Schema.BOOLEAN_SCHEMA);
+    tests.put(Arrays.asList("1", "-2", null), Schema.OPTIONAL_INT32_SCHEMA);
+    tests.put(Arrays.asList("1", "2147483648"), Schema.INT64_SCHEMA);
+    tests.put(Arrays.asList("1", "2.5", "1e10"), Schema.FLOAT64_SCHEMA);
+    tests.put(Arrays.asList("1", "01"), Schema.STRING_SCHEMA);
+    tests.put(Arrays.asList("1", "NaN"), Schema.STRING_SCHEMA);
+    tests.put(Arrays.asList("1", ""), Schema.STRING_SCHEMA);
+    tests.put(Arrays.asList("2019-10-23", "2019-10-24"), Date.SCHEMA);
+    tests.put(Arrays.asList("2019-10-23", "2019-10-24T01:02:03"), Timestamp.SCHEMA);
+    tests.put(Arrays.asList("2019-10-24T01:02:03Z"), Schema.STRING_SCHEMA);
+    tests.put(Arrays.asList(null, null), Schema.OPTIONAL_STRING_SCHEMA);
+
+    return tests.entrySet().stream().map(e -> dynamicTest(e.getKey().toString(), () -> {
+      FieldTypeInference inference = new FieldTypeInference(dateFormats());
+      for (String value : e.getKey()) {
+        inference.accept(value);
+      }
+      assertSchema(e.getValue(), inference.schema(), "schema does not match.");
+    }));
+  }
+}
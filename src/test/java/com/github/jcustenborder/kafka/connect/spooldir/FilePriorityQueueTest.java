@@ -0,0 +1,168 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.apache.kafka.common.utils.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class FilePriorityQueueTest {
+  static final FileComparator BY_NAME = new FileComparator(ImmutableList.of(AbstractSourceConnectorConfig.FileAttribute.NameAsc));
+  File inputPath;
+
+  @BeforeEach
+  public void before() {
+    this.inputPath = Files.createTempDir();
+  }
+
+  File createFile(String name, long lastModified) throws IOException {
+    File result = new File(this.inputPath, name);
+    Files.createParentDirs(result);
+    Files.touch(result);
+    result.setLastModified(lastModified);
+    return result;
+  }
+
+  static List<String> drain(FilePriorityQueue queue) {
+    List<String> result = new ArrayList<>();
+    File file;
+    while (null != (file = queue.poll())) {
+      result.add(file.getName());
+    }
+    return result;
+  }
+
+  @Test
+  public void fileNamePattern() throws IOException {
+    final long now = System.currentTimeMillis();
+    FilePriorityQueue queue = new FilePriorityQueue(
+        new AbstractFilePrioritizer.FileNamePattern(BY_NAME, Pattern.compile("(\\d{4}-\\d{2}-\\d{2})")),
+        0L
+    );
+    queue.offer(createFile("b-2020-01-02.csv", now));
+    queue.offer(createFile("a-2020-01-03.csv", now));
+    queue.offer(createFile("undated.csv", now));
+    queue.offer(createFile("c-2020-01-01.csv", now));
+    assertEquals(Arrays.asList("c-2020-01-01.csv", "b-2020-01-02.csv", "a-2020-01-03.csv", "undated.csv"), drain(queue));
+  }
+
+  @Test
+  public void subDirectory() throws IOException {
+    final long now = System.currentTimeMillis();
+    FilePriorityQueue queue = new FilePriorityQueue(
+        new AbstractFilePrioritizer.SubDirectory(BY_NAME, this.inputPath, Arrays.asList("urgent", "normal")),
+        0L
+    );
+    queue.offer(createFile("backfill/a.csv", now));
+    queue.offer(createFile("normal/b.csv", now));
+    queue.offer(createFile("urgent/feed/c.csv", now));
+    queue.offer(createFile("d.csv", now));
+    assertEquals(Arrays.asList("c.csv", "b.csv", "a.csv", "d.csv"), drain(queue));
+  }
+
+  @Test
+  public void incremental() throws IOException {
+    final long now = System.currentTimeMillis();
+    FilePriorityQueue queue = new FilePriorityQueue(new AbstractFilePrioritizer.FileAttributes(BY_NAME), 0L);
+    File b = createFile("b.csv", now);
+    File c = createFile("c.csv", now);
+    queue.addAll(Arrays.asList(b, c));
+    assertFalse(queue.offer(b), "A queued file should not be added twice.");
+
+    File a = createFile("a.csv", now);
+    queue.retainAll(Arrays.asList(a, c));
+    queue.addAll(Arrays.asList(a, c));
+    assertEquals(2, queue.size());
+    assertEquals(Arrays.asList("a.csv", "c.csv"), drain(queue));
+  }
+
+  @Test
+  public void starvationGuard() throws IOException {
+    final long now = 1559653835000L;
+    Time time = mock(Time.class);
+    FilePriorityQueue queue = new FilePriorityQueue(
+        new AbstractFilePrioritizer.SubDirectory(BY_NAME, this.inputPath, Arrays.asList("urgent")),
+        60000L,
+        time
+    );
+    when(time.milliseconds()).thenReturn(now - 120000L);
+    queue.offer(createFile("backfill/old.csv", now - 1000L));
+    when(time.milliseconds()).thenReturn(now);
+    // Modified long ago but only just queued, for example a file that was copied in.
+    queue.offer(createFile("backfill/copied.csv", now - 600000L));
+    queue.offer(createFile("backfill/new.csv", now - 1000L));
+    queue.offer(createFile("urgent/a.csv", now - 1000L));
+    queue.offer(createFile("urgent/b.csv", now - 1000L));
+    assertEquals(Arrays.asList("old.csv", "a.csv", "b.csv", "copied.csv", "new.csv"), drain(queue));
+  }
+
+  @Test
+  public void fairShare() throws IOException {
+    final long now = System.currentTimeMillis();
+    FilePriorityQueue queue = new FilePriorityQueue(
+        new AbstractFilePrioritizer.FileAttributes(BY_NAME),
+        0L,
+        this.inputPath,
+        ImmutableMap.of("b", 2),
+        Time.SYSTEM
+    );
+    for (int i = 0; i < 4; i++) {
+      queue.offer(createFile(String.format("a/a%s.csv", i), now));
+      queue.offer(createFile(String.format("b/nested/b%s.csv", i), now));
+    }
+    queue.offer(createFile("c/c0.csv", now));
+    assertEquals(
+        Arrays.asList("b0.csv", "a0.csv", "c0.csv", "b1.csv", "b2.csv", "a1.csv", "b3.csv", "a2.csv", "a3.csv"),
+        drain(queue)
+    );
+  }
+
+  @Test
+  public void smallestFirstWithinTenant() throws IOException {
+    final long now = System.currentTimeMillis();
+    FilePriorityQueue queue = new FilePriorityQueue(
+        new AbstractFilePrioritizer.FileAttributes(new FileComparator(ImmutableList.of(AbstractSourceConnectorConfig.FileAttribute.LengthAsc))),
+        0L,
+        this.inputPath,
+        ImmutableMap.of(),
+        Time.SYSTEM
+    );
+    File large = new File(this.inputPath, "a/large.csv");
+    Files.createParentDirs(large);
+    Files.write(new byte[1024], large);
+    File small = new File(this.inputPath, "a/small.csv");
+    Files.write(new byte[16], small);
+    queue.offer(large);
+    queue.offer(small);
+    queue.offer(createFile("b.csv", now));
+    assertEquals(Arrays.asList("small.csv", "b.csv", "large.csv"), drain(queue));
+  }
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static com.github.jcustenborder.kafka.connect.utils.AssertSchema.assertSchema;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GeneratedSchemaCacheTest extends AbstractSchemaGeneratorTest {
+
+  File write(String name, String contents) throws IOException {
+    File result = new File(this.inputPath, name);
+    Files.write(contents, result, Charsets.UTF_8);
+    return result;
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    final GeneratedSchemaCache cache = new GeneratedSchemaCache(this.inputPath);
+    assertNull(cache.get("abc"), "cache should be empty.");
+
+    final Schema keySchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Key")
+        .field("id", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    final Schema valueSchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Value")
+        .field("id", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("name", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+    cache.put("abc", new AbstractMap.SimpleEntry<>(keySchema, valueSchema));
+    assertTrue(cache.file.isFile(), "cache file should exist.");
+
+    final Map.Entry<Schema, Schema> actual = new GeneratedSchemaCache(this.inputPath).get("abc");
+    assertNotNull(actual, "schema should be cached.");
+    assertSchema(keySchema, actual.getKey(), "key schema does not match.");
+    assertSchema(valueSchema, actual.getValue(), "value schema does not match.");
+    assertNull(cache.get("def"), "other keys should not be cached.");
+    assertArrayEquals(
+        new String[]{GeneratedSchemaCache.FILE_NAME},
+        this.inputPath.list((dir, name) -> GeneratedSchemaCache.isCacheFile(name)),
+        "temporary files should be removed."
+    );
+  }
+
+  @Test
+  public void evict() {
+    final Properties properties = new Properties();
+    properties.setProperty("legacy" + GeneratedSchemaCache.KEY_SCHEMA_SUFFIX, "{}");
+    properties.setProperty("legacy" + GeneratedSchemaCache.VALUE_SCHEMA_SUFFIX, "{}");
+    for (int i = 0; i < 4; i++) {
+      properties.setProperty("key" + i + GeneratedSchemaCache.KEY_SCHEMA_SUFFIX, "{}");
+      properties.setProperty("key" + i + GeneratedSchemaCache.VALUE_SCHEMA_SUFFIX, "{}");
+      properties.setProperty("key" + i + GeneratedSchemaCache.UPDATED_SUFFIX, Long.toString(1000L + i));
+    }
+    GeneratedSchemaCache.evict(properties, 2);
+    assertEquals(
+        ImmutableSet.of(
+            "key2" + GeneratedSchemaCache.KEY_SCHEMA_SUFFIX,
+            "key2" + GeneratedSchemaCache.VALUE_SCHEMA_SUFFIX,
+            "key2" + GeneratedSchemaCache.UPDATED_SUFFIX,
+            "key3" + GeneratedSchemaCache.KEY_SCHEMA_SUFFIX,
+            "key3" + GeneratedSchemaCache.VALUE_SCHEMA_SUFFIX,
+            "key3" + GeneratedSchemaCache.UPDATED_SUFFIX
+        ),
+        properties.stringPropertyNames()
+    );
+  }
+
+  @Test
+  public void key() throws IOException {
+    this.settings.put(SpoolDirCsvSourceConnectorConfig.CSV_FIRST_ROW_AS_HEADER_CONF, "true");
+    final CsvSchemaGenerator generator = new CsvSchemaGenerator(this.settings);
+    final File first = write("first.csv", "id,name\n1,one\n");
+    final File second = write("second.csv", "id,name\n2,two\n3,three\n");
+    final File changed = write("changed.csv", "id,name,email\n4,four,four@example.com\n");
+
+    final String expected = GeneratedSchemaCache.key(generator, this.settings, ImmutableList.of(first));
+    assertEquals(
+        expected,
+        GeneratedSchemaCache.key(generator, this.settings, ImmutableList.of(second, first)),
+        "files with the same header should have the same key."
+    );
+    assertNotEquals(
+        expected,
+        GeneratedSchemaCache.key(generator, this.settings, ImmutableList.of(changed)),
+        "a changed header should change the key."
+    );
+
+    this.settings.put(AbstractSpoolDirSourceConnectorConfig.VALUE_SCHEMA_CONF, "{}");
+    assertEquals(
+        expected,
+        GeneratedSchemaCache.key(generator, this.settings, ImmutableList.of(first)),
+        "schema settings should not change the key."
+    );
+    this.settings.put(AbstractSourceConnectorConfig.TOPIC_CONF, "other");
+    assertNotEquals(
+        expected,
+        GeneratedSchemaCache.key(generator, this.settings, ImmutableList.of(first)),
+        "other settings should change the key."
+    );
+  }
+
+  @Test
+  public void isCacheFile() {
+    assertTrue(GeneratedSchemaCache.isCacheFile(GeneratedSchemaCache.FILE_NAME));
+    assertTrue(GeneratedSchemaCache.isCacheFile(GeneratedSchemaCache.FILE_NAME + ".tmp"));
+    assertFalse(GeneratedSchemaCache.isCacheFile("input.csv"));
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Files;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InputFileTest {
+  SpoolDirBinaryFileSourceConnectorConfig config;
+  File file;
+
+  @BeforeEach
+  public void before() throws IOException {
+    File inputPath = Files.createTempDir();
+    this.config = new SpoolDirBinaryFileSourceConnectorConfig(
+        ImmutableMap.of(
+            SpoolDirBinaryFileSourceConnectorConfig.TOPIC_CONF, "foo",
+            SpoolDirBinaryFileSourceConnectorConfig.INPUT_PATH_CONFIG, inputPath.toString(),
+            SpoolDirBinaryFileSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, "^.*$",
+            SpoolDirBinaryFileSourceConnectorConfig.ERROR_PATH_CONFIG, Files.createTempDir().toString(),
+            SpoolDirBinaryFileSourceConnectorConfig.FINISHED_PATH_CONFIG, Files.createTempDir().toString()
+        )
+    );
+    this.file = File.createTempFile("input", "file", inputPath);
+  }
+
+  @Test
+  public void claim() throws IOException {
+    InputFile first = new InputFile(this.config, this.file);
+    InputFile second = new InputFile(this.config, this.file);
+    assertTrue(first.claim());
+    assertTrue(first.claim(), "claim() should be true for the instance holding the flag.");
+    assertFalse(second.claim(), "Only one instance should be able to claim the file.");
+    assertThrows(IOException.class, second::startProcessing);
+    second.close();
+    assertTrue(first.processingFlag().exists(), "close() should not remove a flag held by another instance.");
+    first.close();
+    assertFalse(first.processingFlag().exists());
+    assertTrue(second.claim());
+    second.close();
+  }
+
+  @Test
+  public void reclaim() throws IOException {
+    InputFile crashed = new InputFile(this.config, this.file);
+    InputFile other = new InputFile(this.config, this.file);
+    assertTrue(crashed.claim("crashed"));
+    assertFalse(other.reclaim("other", 60000L), "A fresh flag should not be taken over.");
+    assertTrue(crashed.processingFlag().setLastModified(System.currentTimeMillis() - 120000L));
+    assertTrue(other.reclaim("other", 60000L), "An expired flag should be taken over.");
+    assertEquals("other", InputFile.readOwner(other.processingFlag().toPath()));
+    crashed.close();
+    assertTrue(other.processingFlag().exists(), "close() should not remove a flag that was taken over.");
+    other.close();
+    assertFalse(other.processingFlag().exists());
+  }
+
+  @Test
+  public void heartbeat() throws IOException {
+    InputFile inputFile = new InputFile(this.config, this.file);
+    assertTrue(inputFile.claim("owner"));
+    final long old = System.currentTimeMillis() - 120000L;
+    assertTrue(inputFile.processingFlag().setLastModified(old));
+    assertTrue(inputFile.heartbeat());
+    assertTrue(inputFile.processingFlag().lastModified() > old, "heartbeat() should refresh the flag.");
+    inputFile.close();
+  }
+
+  @Test
+  public void reclaimRace() throws IOException {
+    InputFile winner = new InputFile(this.config, this.file);
+    InputFile loser = new InputFile(this.config, this.file);
+    assertTrue(winner.claim("winner"));
+    assertFalse(
+        loser.replaceStale("loser", 60000L, "crashed"),
+        "A flag that was taken over after it was seen expired should not be replaced."
+    );
+    assertEquals("winner", InputFile.readOwner(winner.processingFlag().toPath()));
+    assertTrue(winner.heartbeat());
+    winner.close();
+  }
+
+  @Test
+  public void heartbeatLost() throws IOException {
+    InputFile crashed = new InputFile(this.config, this.file);
+    InputFile other = new InputFile(this.config, this.file);
+    assertTrue(crashed.claim("crashed"));
+    assertTrue(crashed.processingFlag().setLastModified(System.currentTimeMillis() - 120000L));
+    assertTrue(other.reclaim("other", 60000L));
+    final long lastModified = other.processingFlag().lastModified();
+    assertFalse(crashed.heartbeat(), "heartbeat() should report a flag that was taken over.");
+    assertEquals(lastModified, other.processingFlag().lastModified());
+    other.close();
+  }
+}
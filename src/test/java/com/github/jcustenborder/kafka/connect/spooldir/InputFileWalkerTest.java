@@ -0,0 +1,93 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.io.Files;
+import com.google.common.io.PatternFilenameFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InputFileWalkerTest {
+  static final PatternFilenameFilter FILTER = new PatternFilenameFilter("^.*\\.csv$");
+  File inputPath;
+
+  @BeforeEach
+  public void before() {
+    this.inputPath = Files.createTempDir();
+  }
+
+  static File touch(File directory, String name) throws IOException {
+    File result = new File(directory, name);
+    Files.createParentDirs(result);
+    Files.touch(result);
+    return result;
+  }
+
+  static Set<String> walk(InputFileWalker walker) {
+    Set<String> result = new TreeSet<>();
+    File file;
+    while (null != (file = walker.next())) {
+      result.add(file.getName());
+    }
+    assertTrue(walker.complete());
+    return result;
+  }
+
+  @Test
+  public void walk() throws IOException {
+    touch(this.inputPath, "a.csv");
+    touch(this.inputPath, "ignored.txt");
+    touch(this.inputPath, "b.csv.PROCESSING");
+    touch(new File(this.inputPath, "one/two"), "c.csv");
+    InputFileWalker walker = new InputFileWalker(this.inputPath, ".PROCESSING", FILTER, new HashMap<>());
+    assertEquals(new TreeSet<>(Arrays.asList("a.csv", "c.csv")), walk(walker));
+  }
+
+  @Test
+  public void skipsUnchangedDirectories() throws IOException {
+    final File empty = new File(this.inputPath, "empty");
+    touch(empty, "ignored.txt");
+    final File child = new File(empty, "child");
+    assertTrue(child.mkdirs());
+    final long old = System.currentTimeMillis() - 60000L;
+    assertTrue(child.setLastModified(old));
+    assertTrue(empty.setLastModified(old));
+
+    InputFileWalker walker = new InputFileWalker(this.inputPath, ".PROCESSING", FILTER, new HashMap<>());
+    assertTrue(walk(walker).isEmpty());
+    Map<Path, InputFileWalker.CachedDirectory> cache = walker.nextCache;
+    assertTrue(cache.containsKey(empty.toPath()));
+    assertFalse(cache.containsKey(this.inputPath.toPath()), "Recently modified directories should not be cached.");
+
+    touch(child, "new.csv");
+    walker = new InputFileWalker(this.inputPath, ".PROCESSING", FILTER, cache);
+    assertEquals(new TreeSet<>(Arrays.asList("new.csv")), walk(walker), "Subdirectories of a cached directory should still be walked.");
+    assertEquals(1, walker.skipped, "Only the unchanged directory should be skipped.");
+  }
+}
@@ -89,4 +89,33 @@ public class JsonSchemaGeneratorTest extends AbstractSchemaGeneratorTest {
     assertSchema(expectedValueSchema, kvp.getValue(), "value schema does not match.");
   }
 
+  @Test
+  public void inferTypes() throws IOException {
+    File inputFile = new File("src/test/resources/com/github/jcustenborder/kafka/connect/spooldir/json/FieldsMatch.data");
+    Map<String, String> configs = new HashMap<>(settings);
+    configs.put(SpoolDirJsonSourceConnectorConfig.JSON_INFER_TYPES_CONF, "true");
+    JsonSchemaGenerator schemaGenerator = new JsonSchemaGenerator(configs);
+    Map.Entry<Schema, Schema> kvp = schemaGenerator.generate(inputFile, Arrays.asList("id"));
+    final Schema expectedKeySchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Key")
+        .field("id", Schema.INT32_SCHEMA)
+        .build();
+
+    final Schema expectedValueSchema = SchemaBuilder.struct()
+        .name("com.github.jcustenborder.kafka.connect.model.Value")
+        .field("id", Schema.INT32_SCHEMA)
+        .field("first_name", Schema.STRING_SCHEMA)
+        .field("last_name", Schema.STRING_SCHEMA)
+        .field("email", Schema.STRING_SCHEMA)
+        .field("gender", Schema.STRING_SCHEMA)
+        .field("ip_address", Schema.STRING_SCHEMA)
+        .field("last_login", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("account_balance", Schema.FLOAT64_SCHEMA)
+        .field("country", Schema.STRING_SCHEMA)
+        .field("favorite_color", Schema.OPTIONAL_STRING_SCHEMA)
+        .build();
+
+    assertSchema(expectedKeySchema, kvp.getKey(), "key schema does not match.");
+    assertSchema(expectedValueSchema, kvp.getValue(), "value schema does not match.");
+  }
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.jcustenborder.kafka.connect.utils.jackson.ObjectMapperFactory;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.jcustenborder.kafka.connect.utils.AssertSchema.assertSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonTypeInferenceTest {
+
+  static Map<String, Schema> infer(int maxFields, String... documents) throws IOException {
+    JsonTypeInference inference = new JsonTypeInference(maxFields, false);
+    for (String document : documents) {
+      JsonNode node = ObjectMapperFactory.INSTANCE.readTree(document);
+      inference.accept(node);
+    }
+    return inference.fieldSchemas();
+  }
+
+  @Test
+  public void nested() throws IOException {
+    Map<String, Schema> actual = infer(
+        10,
+        "{\"id\": 1, \"score\": 1, \"tags\": [\"a\"], \"address\": {\"city\": \"Austin\", \"zip\": 78701}}",
+        "{\"id\": 2, \"score\": 2.5, \"tags\": [], \"address\": {\"city\": \"Dallas\"}, \"note\": null}",
+        "{\"id\": 3000000000, \"score\": 3, \"tags\": [\"b\", null], \"address\": null}"
+    );
+    assertEquals(5, actual.size());
+    assertSchema(Schema.INT64_SCHEMA, actual.get("id"), "id does not match.");
+    assertSchema(Schema.FLOAT64_SCHEMA, actual.get("score"), "score does not match.");
+    assertSchema(SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).build(), actual.get("tags"), "tags does not match.");
+    assertSchema(
+        SchemaBuilder.struct()
+            .field("city", Schema.STRING_SCHEMA)
+            .field("zip", Schema.OPTIONAL_INT32_SCHEMA)
+            .optional()
+            .build(),
+        actual.get("address"),
+        "address does not match."
+    );
+    assertSchema(Schema.OPTIONAL_STRING_SCHEMA, actual.get("note"), "note does not match.");
+  }
+
+  @Test
+  public void conflictingTypes() throws IOException {
+    Map<String, Schema> actual = infer(10, "{\"value\": 1}", "{\"value\": \"one\"}");
+    assertSchema(Schema.STRING_SCHEMA, actual.get("value"), "value does not match.");
+  }
+
+  @Test
+  public void maxFields() throws IOException {
+    Map<String, Schema> actual = infer(
+        2,
+        "{\"id\": 1, \"counts\": {\"a\": 1, \"b\": 2}}",
+        "{\"id\": 2, \"counts\": {\"c\": 3}, \"ignored\": true}"
+    );
+    assertEquals(2, actual.size(), "Top level fields past the limit should be ignored.");
+    assertSchema(
+        SchemaBuilder.map(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA).build(),
+        actual.get("counts"),
+        "counts does not match."
+    );
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.io.ByteStreams;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LineBoundedInputStreamTest {
+
+  static String read(LineBoundedInputStream inputStream) throws IOException {
+    return new String(ByteStreams.toByteArray(inputStream), StandardCharsets.UTF_8);
+  }
+
+  static InputStream input(String value) {
+    return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void endsAtLineBreak() throws IOException {
+    LineBoundedInputStream inputStream = new LineBoundedInputStream(input("first\nsecond\nthird\n"), 8);
+    assertEquals("first\nsecond\n", read(inputStream));
+    assertTrue(inputStream.truncated());
+  }
+
+  @Test
+  public void underLimit() throws IOException {
+    LineBoundedInputStream inputStream = new LineBoundedInputStream(input("first\nsecond"), 1024);
+    assertEquals("first\nsecond", read(inputStream));
+    assertFalse(inputStream.truncated());
+  }
+
+  @Test
+  public void maxOverrun() throws IOException {
+    LineBoundedInputStream inputStream = new LineBoundedInputStream(input("0123456789abcdef\n"), 4, 4);
+    assertEquals("01234567", read(inputStream));
+    assertTrue(inputStream.truncated());
+  }
+}
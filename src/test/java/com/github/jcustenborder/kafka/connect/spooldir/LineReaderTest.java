@@ -0,0 +1,117 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.LineNumberReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class LineReaderTest {
+
+  static LineReader reader(String input, int bufferSize) {
+    return new LineReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), bufferSize);
+  }
+
+  static List<String> lines(LineReader reader) throws IOException {
+    List<String> result = new ArrayList<>();
+    while (reader.next()) {
+      result.add(reader.string(StandardCharsets.UTF_8));
+    }
+    return result;
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> matchesLineNumberReader() {
+    final List<String> inputs = Arrays.asList(
+        "",
+        "one",
+        "one\n",
+        "one\ntwo\nthree",
+        "one\r\ntwo\r\n",
+        "one\rtwo\r",
+        "one\r\rtwo\n\n",
+        "first line that is longer than the buffer\nshort\r\nünïcödé\r\n"
+    );
+    List<DynamicTest> tests = new ArrayList<>();
+    for (String input : inputs) {
+      for (int bufferSize : new int[]{1, 4, 5, 1024}) {
+        tests.add(dynamicTest(String.format("%s %s", bufferSize, input.replace("\r", "\\r").replace("\n", "\\n")), () -> {
+          List<String> expected = new ArrayList<>();
+          LineNumberReader lineNumberReader = new LineNumberReader(new StringReader(input));
+          String line;
+          while (null != (line = lineNumberReader.readLine())) {
+            expected.add(line);
+          }
+          LineReader reader = reader(input, bufferSize);
+          assertEquals(expected, lines(reader));
+          assertEquals(lineNumberReader.getLineNumber(), reader.lineNumber());
+          assertEquals(input.getBytes(StandardCharsets.UTF_8).length, reader.offset());
+        }));
+      }
+    }
+    return tests.stream();
+  }
+
+  @Test
+  public void offsets() throws IOException {
+    LineReader reader = reader("one\r\ntwo\nthree", 4);
+    assertTrue(reader.next());
+    assertArrayEquals("one".getBytes(StandardCharsets.UTF_8), reader.bytes());
+    assertEquals(5, reader.offset());
+    assertTrue(reader.next());
+    assertEquals(9, reader.offset());
+    assertTrue(reader.next());
+    assertEquals("three", reader.string(StandardCharsets.UTF_8));
+    assertEquals(14, reader.offset());
+    assertEquals(3, reader.lineNumber());
+    assertFalse(reader.next());
+  }
+
+  @Test
+  public void seek() throws IOException {
+    LineReader reader = reader("one\r\ntwo\nthree", 4);
+    reader.seek(5, 1);
+    assertTrue(reader.next());
+    assertEquals("two", reader.string(StandardCharsets.UTF_8));
+    assertEquals(9, reader.offset());
+    assertEquals(2, reader.lineNumber());
+    assertThrows(IllegalStateException.class, () -> reader.seek(0, 0));
+  }
+
+  @Test
+  public void supports() {
+    assertTrue(LineReader.supports(StandardCharsets.UTF_8));
+    assertTrue(LineReader.supports(StandardCharsets.ISO_8859_1));
+    assertFalse(LineReader.supports(StandardCharsets.UTF_16));
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class MemoryBudgetTest {
+
+  @Test
+  public void acquireAndRelease() throws InterruptedException {
+    MemoryBudget budget = new MemoryBudget(1000);
+    assertEquals(600, budget.tryAcquire(600, 10));
+    assertEquals(-1, budget.tryAcquire(600, 10), "Budget should be used up.");
+    budget.release(600);
+    assertEquals(1000, budget.available());
+  }
+
+  @Test
+  public void cappedAtCapacity() throws InterruptedException {
+    MemoryBudget budget = new MemoryBudget(1000);
+    assertEquals(1000, budget.tryAcquire(5000, 10));
+    assertEquals(0, budget.available());
+  }
+
+  @Test
+  public void overdraw() throws InterruptedException {
+    MemoryBudget budget = new MemoryBudget(1000);
+    assertEquals(1000, budget.tryAcquire(1000, 10));
+    budget.acquire(500);
+    assertEquals(-500, budget.available());
+    budget.release(1000);
+    assertEquals(-1, budget.tryAcquire(1000, 10), "Budget should still be short.");
+    assertEquals(0, budget.tryAcquire(0, 10));
+  }
+
+  @Test
+  public void releaseWakesWaiter() throws InterruptedException {
+    MemoryBudget budget = new MemoryBudget(1000);
+    assertEquals(1000, budget.tryAcquire(1000, 10));
+    ScheduledExecutorService executorService = Executors.newSingleThreadScheduledExecutor();
+    try {
+      executorService.schedule(() -> budget.release(1000), 100, TimeUnit.MILLISECONDS);
+      assertEquals(500, budget.tryAcquire(500, 30000));
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shared() {
+    MemoryBudget budget = MemoryBudget.shared(1024);
+    assertSame(budget, MemoryBudget.shared(2048));
+  }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class MultilineMatcherTest {
+
+  @Test
+  public void fastPaths() {
+    final Charset charset = StandardCharsets.UTF_8;
+    assertEquals(MultilineMatcher.Prefix.class, MultilineMatcher.of(Pattern.compile("^\\["), charset).getClass());
+    assertEquals(MultilineMatcher.Prefix.class, MultilineMatcher.of(Pattern.compile("^20"), charset).getClass());
+    assertEquals(MultilineMatcher.LeadingCharacter.class, MultilineMatcher.of(Pattern.compile("^\\s+"), charset).getClass());
+    assertEquals(MultilineMatcher.LeadingCharacter.class, MultilineMatcher.of(Pattern.compile("^\\d"), charset).getClass());
+    assertEquals(MultilineMatcher.LeadingCharacter.class, MultilineMatcher.of(Pattern.compile("^[ \\t]"), charset).getClass());
+    assertEquals(MultilineMatcher.Contains.class, MultilineMatcher.of(Pattern.compile("Caused by:"), charset).getClass());
+    assertEquals(MultilineMatcher.Regex.class, MultilineMatcher.of(Pattern.compile("^\\d{4}-"), charset).getClass());
+    assertEquals(MultilineMatcher.Regex.class, MultilineMatcher.of(Pattern.compile("^\\s*at "), charset).getClass());
+    assertEquals(MultilineMatcher.Regex.class, MultilineMatcher.of(Pattern.compile("^info", Pattern.CASE_INSENSITIVE), charset).getClass());
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> matchesRegex() {
+    final String[] patterns = {
+        "^\\[",
+        "^20",
+        "^\\s",
+        "^\\s+",
+        "^\\d",
+        "^[ \\t]",
+        "Caused by:",
+        "^\\d{4}-\\d{2}-\\d{2}"
+    };
+    final String[] lines = {
+        "",
+        "[INFO] started",
+        "2020-01-01 00:00:00 started",
+        "    at com.example.Main.main(Main.java:10)",
+        "\tat com.example.Main.main(Main.java:10)",
+        "Caused by: java.io.IOException",
+        "java.lang.IllegalStateException: Caused by: nothing",
+        "ünïcödé"
+    };
+    List<DynamicTest> tests = new ArrayList<>();
+    for (String pattern : patterns) {
+      final Pattern compiled = Pattern.compile(pattern);
+      final MultilineMatcher matcher = MultilineMatcher.of(compiled, StandardCharsets.UTF_8);
+      for (String line : lines) {
+        tests.add(dynamicTest(String.format("%s %s", pattern, line), () -> {
+          final boolean expected = compiled.matcher(line).find();
+          assertEquals(expected, matcher.matches(line));
+          LineReader reader = new LineReader(new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)));
+          if (reader.next()) {
+            assertEquals(expected, matcher.matches(reader));
+          }
+        }));
+      }
+    }
+    return tests.stream();
+  }
+
+  @Test
+  public void indent() throws IOException {
+    MultilineMatcher matcher = MultilineMatcher.indent(StandardCharsets.UTF_8);
+    assertTrue(matcher.matches(" at"));
+    assertTrue(matcher.matches("\tat"));
+    assertFalse(matcher.matches(""));
+    assertFalse(matcher.matches("at"));
+    LineReader reader = new LineReader(new ByteArrayInputStream("\n\tat\n".getBytes(StandardCharsets.UTF_8)));
+    assertTrue(reader.next());
+    assertFalse(matcher.matches(reader));
+    assertTrue(reader.next());
+    assertTrue(matcher.matches(reader));
+  }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.github.jcustenborder.kafka.connect.utils.data.Parser;
+import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class NumericTypeParserTest {
+  final Parser parser = new Parser();
+
+  NumericTypeParser parser(Schema.Type type) {
+    return new NumericTypeParser(type, this.parser);
+  }
+
+  @Test
+  public void supports() {
+    assertTrue(NumericTypeParser.supports(Schema.INT32_SCHEMA));
+    assertTrue(NumericTypeParser.supports(Schema.OPTIONAL_FLOAT64_SCHEMA));
+    assertFalse(NumericTypeParser.supports(Schema.FLOAT32_SCHEMA));
+    assertFalse(NumericTypeParser.supports(Schema.STRING_SCHEMA));
+    assertFalse(NumericTypeParser.supports(Timestamp.SCHEMA));
+    assertFalse(NumericTypeParser.supports(Decimal.schema(2)));
+  }
+
+  @Test
+  public void integers() {
+    assertEquals((byte) -12, parser(Schema.Type.INT8).parseString("-12", Schema.INT8_SCHEMA));
+    assertEquals((short) 1234, parser(Schema.Type.INT16).parseString("1234", Schema.INT16_SCHEMA));
+    assertEquals(123456, parser(Schema.Type.INT32).parseString("123456", Schema.INT32_SCHEMA));
+    assertEquals(12345678901L, parser(Schema.Type.INT64).parseString("12345678901", Schema.INT64_SCHEMA));
+    assertEquals(Long.MAX_VALUE, parser(Schema.Type.INT64).parseString(Long.toString(Long.MAX_VALUE), Schema.INT64_SCHEMA));
+    assertEquals(0, parser(Schema.Type.INT32).parseString("-0", Schema.INT32_SCHEMA));
+    assertSame(
+        parser(Schema.Type.INT32).parseString("42", Schema.INT32_SCHEMA),
+        parser(Schema.Type.INT32).parseString("42", Schema.INT32_SCHEMA),
+        "small values should use the cached boxes."
+    );
+  }
+
+  @Test
+  public void outOfRange() {
+    assertThrows(RuntimeException.class, () -> parser(Schema.Type.INT8).parseString("128", Schema.INT8_SCHEMA));
+    assertThrows(RuntimeException.class, () -> parser(Schema.Type.INT32).parseString("2147483648", Schema.INT32_SCHEMA));
+    assertThrows(RuntimeException.class, () -> parser(Schema.Type.INT32).parseString("abc", Schema.INT32_SCHEMA));
+  }
+
+  @Test
+  public void doubles() {
+    final NumericTypeParser parser = parser(Schema.Type.FLOAT64);
+    final Random random = new Random(1234);
+    for (int i = 0; i < 10000; i++) {
+      final String input = String.format("%." + random.nextInt(10) + "f", (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(10)));
+      assertEquals(Double.parseDouble(input), parser.parseString(input, Schema.FLOAT64_SCHEMA), input);
+    }
+    assertEquals(1.0E10, parser.parseString("1.0E10", Schema.FLOAT64_SCHEMA));
+    assertEquals(-0.0, parser.parseString("-0.0", Schema.FLOAT64_SCHEMA));
+    assertEquals(12345678901234567890.5, parser.parseString("12345678901234567890.5", Schema.FLOAT64_SCHEMA));
+  }
+
+  @Test
+  public void parseDoubleNoMatch() {
+    assertTrue(Double.isNaN(NumericTypeParser.parseDouble("")));
+    assertTrue(Double.isNaN(NumericTypeParser.parseDouble("1.")));
+    assertTrue(Double.isNaN(NumericTypeParser.parseDouble("1.2.3")));
+    assertTrue(Double.isNaN(NumericTypeParser.parseDouble("1e5")));
+    assertTrue(Double.isNaN(NumericTypeParser.parseDouble("123456789012345678")));
+  }
+}
@@ -0,0 +1,55 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.google.common.io.Files;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelDirectoryCrawlerTest {
+
+  @Test
+  public void list() throws IOException {
+    File inputPath = Files.createTempDir();
+    Set<File> expected = new HashSet<>();
+    for (int day = 1; day <= 10; day++) {
+      for (int hour = 0; hour < 24; hour++) {
+        File file = new File(inputPath, String.format("2020-01-%02d/%02d/input.csv", day, hour));
+        Files.createParentDirs(file);
+        Files.touch(file);
+        expected.add(file);
+      }
+    }
+    try (ParallelDirectoryCrawler crawler = new ParallelDirectoryCrawler(4)) {
+      assertEquals(expected, new HashSet<>(crawler.list(inputPath)));
+    }
+  }
+
+  @Test
+  public void missingInputPath() {
+    File inputPath = new File(Files.createTempDir(), "missing");
+    try (ParallelDirectoryCrawler crawler = new ParallelDirectoryCrawler(2)) {
+      assertThrows(IOException.class, () -> crawler.list(inputPath));
+    }
+  }
+}
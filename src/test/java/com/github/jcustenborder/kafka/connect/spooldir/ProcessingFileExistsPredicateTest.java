@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -38,4 +40,27 @@ public class ProcessingFileExistsPredicateTest {
     processingFlag.delete();
     assertTrue(this.predicate.test(this.inputFile));
   }
+
+  @Test
+  public void processingFilesFromScan() {
+    File processingFlag = InputFileDequeue.processingFile(EXTENSION, this.inputFile);
+    this.predicate.processingFiles = new HashSet<>(Arrays.asList(processingFlag));
+    assertFalse(this.predicate.test(this.inputFile));
+    this.predicate.processingFiles = new HashSet<>();
+    assertTrue(this.predicate.test(this.inputFile));
+  }
+
+  @Test
+  public void expiredLease() throws IOException {
+    File processingFlag = InputFileDequeue.processingFile(EXTENSION, this.inputFile);
+    Files.touch(processingFlag);
+    try {
+      this.predicate = new InputFileDequeue.ProcessingFileExistsPredicate(EXTENSION, 60000L);
+      assertFalse(this.predicate.test(this.inputFile), "A fresh flag should hold the file.");
+      assertTrue(processingFlag.setLastModified(System.currentTimeMillis() - 120000L));
+      assertTrue(this.predicate.test(this.inputFile), "An expired flag should release the file.");
+    } finally {
+      processingFlag.delete();
+    }
+  }
 }
@@ -37,6 +37,7 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
@@ -145,5 +146,57 @@ public class SpoolDirCsvSourceTaskTest extends AbstractSpoolDirSourceTaskTest<Sp
 
   }
 
+  @Test
+  public void schemaPerFile() throws IOException, InterruptedException {
+    final Schema first = SchemaBuilder.struct()
+        .field("id", Schema.INT32_SCHEMA)
+        .field("name", Schema.STRING_SCHEMA)
+        .build();
+    final Schema second = SchemaBuilder.struct()
+        .field("id", Schema.INT32_SCHEMA)
+        .field("email", Schema.STRING_SCHEMA)
+        .build();
+    writeCSV(
+        this.getTargetFilePath(this.inputPath, "a.csv"),
+        first,
+        Arrays.asList(new Struct(first).put("id", 1).put("name", "one"))
+    );
+    writeCSV(
+        this.getTargetFilePath(this.inputPath, "b.csv"),
+        second,
+        Arrays.asList(new Struct(second).put("id", 2).put("email", "two@example.com"))
+    );
+
+    Map<String, String> settings = settings();
+    settings.put(SpoolDirCsvSourceConnectorConfig.CSV_SCHEMA_PER_FILE_CONF, "true");
+    settings.put(SpoolDirCsvSourceConnectorConfig.SCHEMA_GENERATION_ENABLED_CONF, "true");
+    settings.put(SpoolDirCsvSourceConnectorConfig.SCHEMA_GENERATION_KEY_FIELDS_CONF, "id");
+    settings.put(SpoolDirCsvSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, ".*");
+    SpoolDirCsvSourceTask task = new SpoolDirCsvSourceTask();
+    SourceTaskContext sourceTaskContext = mock(SourceTaskContext.class);
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    when(offsetStorageReader.offset(anyMap()))
+        .thenReturn(null);
+    when(sourceTaskContext.offsetStorageReader()).thenReturn(offsetStorageReader);
+    task.initialize(sourceTaskContext);
+    task.start(settings);
 
+    List<SourceRecord> records = new ArrayList<>();
+    for (int i = 0; i < 10 && records.size() < 2; i++) {
+      List<SourceRecord> polled = task.poll();
+      if (null != polled) {
+        records.addAll(polled);
+      }
+    }
+    task.stop();
+
+    assertEquals(2, records.size(), "Expected number of records does not match.");
+    final Struct firstValue = (Struct) records.get(0).value();
+    assertEquals("one", firstValue.getString("name"));
+    assertEquals("1", ((Struct) records.get(0).key()).getString("id"));
+    final Struct secondValue = (Struct) records.get(1).value();
+    assertEquals("two@example.com", secondValue.getString("email"));
+    assertNull(secondValue.schema().field("name"), "second file should not have the name field.");
+    assertEquals(2, task.converters.size(), "Expected a converter for each header.");
+  }
 }
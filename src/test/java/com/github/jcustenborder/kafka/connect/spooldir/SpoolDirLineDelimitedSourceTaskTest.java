@@ -1,12 +1,24 @@
 package com.github.jcustenborder.kafka.connect.spooldir;
 
+import com.google.common.base.Charsets;
+import com.google.common.io.Files;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.storage.OffsetStorageReader;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class SpoolDirLineDelimitedSourceTaskTest extends AbstractSpoolDirSourceTaskTest<SpoolDirLineDelimitedSourceTask> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirJsonSourceTaskTest.class);
@@ -25,4 +37,102 @@ public class SpoolDirLineDelimitedSourceTaskTest extends AbstractSpoolDirSourceT
     return settings;
   }
 
+  @Test
+  public void rebalance() throws IOException, InterruptedException {
+    final int count = 100;
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append("line ").append(i).append(0 == i % 2 ? "\n" : "\r\n");
+    }
+    File inputFile = this.getTargetFilePath(this.inputPath, "input.txt");
+    Files.write(builder.toString(), inputFile, Charsets.UTF_8);
+    Map<String, String> settings = settings();
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.BATCH_SIZE_CONF, "30");
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, ".*");
+    SpoolDirLineDelimitedSourceTask task = new SpoolDirLineDelimitedSourceTask();
+    SourceTaskContext sourceTaskContext = mock(SourceTaskContext.class);
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    when(offsetStorageReader.offset(anyMap()))
+        .thenReturn(null);
+    when(sourceTaskContext.offsetStorageReader()).thenReturn(offsetStorageReader);
+    task.initialize(sourceTaskContext);
+    task.start(settings);
+
+    List<SourceRecord> records = new ArrayList<>();
+    records.addAll(task.poll());
+    assertEquals(30, records.size());
+    SourceRecord lastRecord = records.get(29);
+    assertEquals(30L, lastRecord.sourceOffset().get("offset"));
+    assertEquals(245L, lastRecord.sourceOffset().get(AbstractSourceTask.BYTE_OFFSET_KEY));
+    when(offsetStorageReader.offset(anyMap())).thenReturn((Map<String, Object>) lastRecord.sourceOffset());
+
+    task.stop();
+    task.start(settings);
+    while (records.size() < count) {
+      List<SourceRecord> batch = task.poll();
+      if (null == batch) {
+        break;
+      }
+      records.addAll(batch);
+    }
+    assertEquals(count, records.size(), "Expected number of records does not match.");
+    for (int i = 0; i < count; i++) {
+      assertEquals("line " + i, records.get(i).value());
+    }
+  }
+
+  @Test
+  public void multiline() throws IOException, InterruptedException {
+    final String input = "2020-01-01 00:00:00 ERROR failed\n" +
+        "java.lang.IllegalStateException: failed\n" +
+        "\tat com.example.Main.main(Main.java:10)\n" +
+        "2020-01-01 00:00:01 INFO started\n" +
+        "2020-01-01 00:00:02 ERROR failed again\n" +
+        "\tat com.example.Main.main(Main.java:10)\n" +
+        "\tat com.example.Main.main(Main.java:11)\n" +
+        "\tat com.example.Main.main(Main.java:12)";
+    File inputFile = this.getTargetFilePath(this.inputPath, "input.log");
+    Files.write(input, inputFile, Charsets.UTF_8);
+    Map<String, String> settings = settings();
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.BATCH_SIZE_CONF, "2");
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, ".*");
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.MULTILINE_MODE_CONF, "START_PATTERN");
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.MULTILINE_PATTERN_CONF, "^\\d{4}-");
+    settings.put(SpoolDirLineDelimitedSourceConnectorConfig.MULTILINE_MAX_LINES_CONF, "3");
+    SpoolDirLineDelimitedSourceTask task = new SpoolDirLineDelimitedSourceTask();
+    SourceTaskContext sourceTaskContext = mock(SourceTaskContext.class);
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    when(offsetStorageReader.offset(anyMap()))
+        .thenReturn(null);
+    when(sourceTaskContext.offsetStorageReader()).thenReturn(offsetStorageReader);
+    task.initialize(sourceTaskContext);
+    task.start(settings);
+
+    List<SourceRecord> records = new ArrayList<>();
+    records.addAll(task.poll());
+    assertEquals(2, records.size());
+    assertEquals(
+        "2020-01-01 00:00:00 ERROR failed\n" +
+            "java.lang.IllegalStateException: failed\n" +
+            "\tat com.example.Main.main(Main.java:10)",
+        records.get(0).value()
+    );
+    assertEquals(3L, records.get(0).sourceOffset().get("offset"));
+    assertEquals("2020-01-01 00:00:01 INFO started", records.get(1).value());
+    assertEquals(4L, records.get(1).sourceOffset().get("offset"));
+    records.addAll(task.poll());
+    assertEquals(4, records.size());
+    assertEquals(
+        "2020-01-01 00:00:02 ERROR failed again\n" +
+            "\tat com.example.Main.main(Main.java:10)\n" +
+            "\tat com.example.Main.main(Main.java:11)",
+        records.get(2).value()
+    );
+    assertEquals("\tat com.example.Main.main(Main.java:12)", records.get(3).value());
+    assertEquals(8L, records.get(3).sourceOffset().get("offset"));
+    assertEquals(
+        (long) input.length(),
+        records.get(3).sourceOffset().get(AbstractSourceTask.BYTE_OFFSET_KEY)
+    );
+  }
 }
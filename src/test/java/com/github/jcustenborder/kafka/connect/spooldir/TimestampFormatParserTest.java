@@ -0,0 +1,132 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir;
+
+import com.github.jcustenborder.kafka.connect.utils.data.type.TimestampTypeParser;
+import org.apache.kafka.connect.data.Timestamp;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+public class TimestampFormatParserTest {
+  static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+  static SimpleDateFormat[] formats(TimeZone timeZone, String... patterns) {
+    SimpleDateFormat[] result = new SimpleDateFormat[patterns.length];
+    for (int i = 0; i < patterns.length; i++) {
+      result[i] = new SimpleDateFormat(patterns[i]);
+      result[i].setTimeZone(timeZone);
+    }
+    return result;
+  }
+
+  static TimestampFormatParser parser(boolean epochMillis, SimpleDateFormat... formats) {
+    return new TimestampFormatParser(new TimestampTypeParser(UTC, formats), formats, epochMillis);
+  }
+
+  @TestFactory
+  public Stream<DynamicTest> matchesSimpleDateFormat() {
+    final String[] patterns = {
+        "yyyy-MM-dd'T'HH:mm:ss",
+        "yyyy-MM-dd' 'HH:mm:ss",
+        "yyyy-MM-dd'T'HH:mm:ss'Z'",
+        "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+        "yyyy-MM-dd"
+    };
+    final String[] values = {
+        "2020-01-02T03:04:05",
+        "2020-01-02 03:04:05",
+        "2019-12-31T00:00:00Z",
+        "2020-03-08T02:30:00",
+        "2020-11-01T01:30:00",
+        "2020-06-30T23:59:59.123+05:30",
+        "2020-06-30T23:59:59.123Z",
+        "2020-02-29",
+        "2021-02-29",
+        "2020-13-01",
+        "1500-01-01"
+    };
+    List<DynamicTest> tests = new ArrayList<>();
+    for (String zone : new String[]{"UTC", "America/New_York"}) {
+      for (String pattern : patterns) {
+        final SimpleDateFormat dateFormat = formats(TimeZone.getTimeZone(zone), pattern)[0];
+        final TimestampFormatParser.CompiledFormat compiledFormat = new TimestampFormatParser.CompiledFormat(dateFormat);
+        for (String value : values) {
+          tests.add(dynamicTest(String.format("%s %s %s", zone, pattern, value), () -> {
+            Date expected = dateFormat.parse(value, new ParsePosition(0));
+            assertEquals(expected, compiledFormat.parse(value, false));
+          }));
+        }
+      }
+    }
+    return tests.stream();
+  }
+
+  @Test
+  public void remembersLastMatch() {
+    TimestampFormatParser parser = parser(false, formats(UTC, "MM/dd/yyyy HH:mm:ss", "yyyy-MM-dd'T'HH:mm:ss"));
+    assertEquals(1577840400000L, ((Date) parser.parseString("2020-01-01T01:00:00", Timestamp.SCHEMA)).getTime());
+    assertEquals(1, parser.lastMatch);
+    assertEquals(1577926800000L, ((Date) parser.parseString("2020-01-02T01:00:00", Timestamp.SCHEMA)).getTime());
+    assertEquals(1577840400000L, ((Date) parser.parseString("01/01/2020 01:00:00", Timestamp.SCHEMA)).getTime());
+    assertEquals(0, parser.lastMatch);
+  }
+
+  @Test
+  public void lastMatchMustUseWholeValue() {
+    TimestampFormatParser parser = parser(false, formats(UTC, "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd"));
+    assertEquals(1577836800000L, ((Date) parser.parseString("2020-01-01", Timestamp.SCHEMA)).getTime());
+    assertEquals(1, parser.lastMatch);
+    assertEquals(1577840400000L, ((Date) parser.parseString("2020-01-01T01:00:00", Timestamp.SCHEMA)).getTime());
+    assertEquals(0, parser.lastMatch);
+  }
+
+  @Test
+  public void epochMillis() {
+    TimestampFormatParser parser = parser(true, formats(UTC, "yyyy-MM-dd'T'HH:mm:ss"));
+    assertEquals(1577836800000L, ((Date) parser.parseString("1577836800000", Timestamp.SCHEMA)).getTime());
+    assertEquals(-5L, ((Date) parser.parseString("-5", Timestamp.SCHEMA)).getTime());
+    assertEquals(TimestampFormatParser.NO_MATCH, TimestampFormatParser.parseEpochMillis("12a"));
+    assertEquals(TimestampFormatParser.NO_MATCH, TimestampFormatParser.parseEpochMillis("-"));
+  }
+
+  @Test
+  public void fieldParsersAreIndependent() {
+    TimestampFormatParser parser = parser(false, formats(UTC, "yyyy-MM-dd'T'HH:mm:ss", "yyyy-MM-dd"));
+    TimestampFormatParser fieldParser = new TimestampFormatParser(parser);
+    fieldParser.parseString("2020-01-01", Timestamp.SCHEMA);
+    assertNotEquals(parser.lastMatch, fieldParser.lastMatch);
+  }
+
+  @Test
+  public void noMatch() {
+    TimestampFormatParser parser = parser(false, formats(UTC, "yyyy-MM-dd'T'HH:mm:ss"));
+    assertThrows(RuntimeException.class, () -> parser.parseString("not a date", Timestamp.SCHEMA));
+  }
+}
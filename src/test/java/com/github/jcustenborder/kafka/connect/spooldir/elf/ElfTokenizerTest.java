@@ -0,0 +1,197 @@
+/**
+ * Copyright © 2016 Jeremy Custenborder (jcustenborder@gmail.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jcustenborder.kafka.connect.spooldir.elf;
+
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ElfTokenizerTest {
+
+  static ElfTokenizer tokenizer(String input) throws IOException {
+    ElfTokenizer tokenizer = new ElfTokenizer(new StringReader(input), 16);
+    tokenizer.readDirectives();
+    return tokenizer;
+  }
+
+  @Test
+  public void tokenize() throws IOException {
+    final String input = "#Version: 1.0\r\n" +
+        "#Fields: date time time-taken sc-bytes sc-status cs(User-Agent)\r\n" +
+        "2019-10-23\t21:00:00.5    0.015 1024 200 \"Mozilla \"\"5.0\"\"\"\r\n" +
+        "\r\n" +
+        "1969-12-31 23:59 - - - -";
+    try (ElfTokenizer tokenizer = tokenizer(input)) {
+      assertArrayEquals(
+          new String[]{"date", "time", "time-taken", "sc-bytes", "sc-status", "cs(User-Agent)"},
+          tokenizer.fields()
+      );
+      assertEquals(LocalDate.class, tokenizer.fieldTypes().get("date"));
+      assertEquals(LocalTime.class, tokenizer.fieldTypes().get("time"));
+      assertEquals(Double.class, tokenizer.fieldTypes().get("time-taken"));
+      assertEquals(Long.class, tokenizer.fieldTypes().get("sc-bytes"));
+      assertEquals(Integer.class, tokenizer.fieldTypes().get("sc-status"));
+      assertEquals(String.class, tokenizer.fieldTypes().get("cs(User-Agent)"));
+
+      Object[] row = tokenizer.next();
+      assertArrayEquals(
+          new Object[]{null, null, 0.015D, 1024L, 200, "Mozilla \"5.0\""},
+          row
+      );
+      assertArrayEquals(
+          new long[]{
+              LocalDate.of(2019, 10, 23).toEpochDay() * ElfTokenizer.MILLIS_PER_DAY,
+              LocalTime.of(21, 0, 0, 500_000_000).toNanoOfDay() / 1_000_000L,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS
+          },
+          tokenizer.millis()
+      );
+
+      row = tokenizer.next();
+      assertArrayEquals(new Object[]{null, null, null, null, null, null}, row);
+      assertArrayEquals(
+          new long[]{
+              -ElfTokenizer.MILLIS_PER_DAY,
+              LocalTime.of(23, 59).toNanoOfDay() / 1_000_000L,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS,
+              ElfTokenizer.NULL_MILLIS
+          },
+          tokenizer.millis()
+      );
+      assertNull(tokenizer.next());
+    }
+  }
+
+  @Test
+  public void missingDateOrTime() throws IOException {
+    final String input = "#Fields: date time sc-bytes\n" +
+        "- 21:00:00 1024\n" +
+        "2019-10-23 - 2048\n" +
+        "2019-10-23 21:00:00 4096\n";
+    try (ElfTokenizer tokenizer = tokenizer(input)) {
+      SchemaConversion conversion = new SchemaConversionBuilder(tokenizer.fieldTypes()).build();
+
+      Struct struct = (Struct) conversion.convert(tokenizer.next(), tokenizer.millis()).value();
+      assertNull(struct.get("date"));
+      assertNotNull(struct.get("time"), "time should not be null.");
+      assertNull(struct.get("datetime"));
+      assertEquals(1024L, struct.getInt64("sc_bytes"));
+
+      struct = (Struct) conversion.convert(tokenizer.next(), tokenizer.millis()).value();
+      assertNotNull(struct.get("date"), "date should not be null.");
+      assertNull(struct.get("time"));
+      assertNull(struct.get("datetime"));
+      assertEquals(2048L, struct.getInt64("sc_bytes"));
+
+      struct = (Struct) conversion.convert(tokenizer.next(), tokenizer.millis()).value();
+      assertEquals(
+          new Date(LocalDate.of(2019, 10, 23).toEpochDay() * ElfTokenizer.MILLIS_PER_DAY + 21L * 60L * 60L * 1000L),
+          struct.get("datetime")
+      );
+    }
+  }
+
+  @Test
+  public void fieldsChange() throws IOException {
+    final String input = "#Fields: date sc-bytes\n" +
+        "2019-10-23 1024\n" +
+        "#Fields: date sc-bytes\n" +
+        "2019-10-23 2048\n" +
+        "#Fields: cs-uri-stem sc-status\n" +
+        "/index.html 404\n";
+    try (ElfTokenizer tokenizer = tokenizer(input)) {
+      final String[] fields = tokenizer.fields();
+      assertEquals(1024L, tokenizer.next()[1]);
+      assertEquals(2048L, tokenizer.next()[1]);
+      assertSame(fields, tokenizer.fields(), "Repeated #Fields directive should not change the fields.");
+
+      assertArrayEquals(new Object[]{"/index.html", 404}, tokenizer.next());
+      assertArrayEquals(new String[]{"cs-uri-stem", "sc-status"}, tokenizer.fields());
+      assertNull(tokenizer.next());
+    }
+  }
+
+  @Test
+  public void epochDay() {
+    for (LocalDate date = LocalDate.of(1899, 12, 1); date.isBefore(LocalDate.of(2101, 3, 1)); date = date.plusDays(1)) {
+      assertEquals(date.toEpochDay(), ElfTokenizer.epochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth()), date.toString());
+    }
+  }
+
+  @Test
+  public void invalidDate() throws IOException {
+    try (ElfTokenizer tokenizer = tokenizer("#Fields: date sc-bytes\n2019-02-29 1024\n2019-04-31 2048\n")) {
+      assertThrows(DataException.class, tokenizer::next, "February 29th in a year that is not a leap year.");
+      assertThrows(DataException.class, tokenizer::next, "The 31st in a month with 30 days.");
+    }
+    for (String date : new String[]{"2019-02-29", "2019-04-31", "2019-13-01", "2019-01-00"}) {
+      assertThrows(
+          NumberFormatException.class,
+          () -> ElfTokenizer.parseDate(date.toCharArray(), 0, date.length()),
+          date
+      );
+    }
+    final String leapDay = "2020-02-29";
+    assertEquals(
+        LocalDate.of(2020, 2, 29).toEpochDay(),
+        ElfTokenizer.parseDate(leapDay.toCharArray(), 0, leapDay.length())
+    );
+  }
+
+  @Test
+  public void invalidValue() throws IOException {
+    try (ElfTokenizer tokenizer = tokenizer("#Fields: date sc-bytes\n2019-10-23 abc\n")) {
+      assertThrows(DataException.class, tokenizer::next);
+    }
+  }
+
+  @Test
+  public void fieldCountMismatch() throws IOException {
+    final String input = "#Fields: date sc-bytes\n" +
+        "2019-10-23 1024 extra\n" +
+        "2019-10-23\n" +
+        "2019-10-23 2048 \t\n";
+    try (ElfTokenizer tokenizer = tokenizer(input)) {
+      assertThrows(DataException.class, tokenizer::next, "A line with too many values should be rejected.");
+      assertThrows(DataException.class, tokenizer::next, "A line with too few values should be rejected.");
+      assertEquals(2048L, tokenizer.next()[1], "Trailing whitespace should be ignored.");
+      assertNull(tokenizer.next());
+    }
+  }
+
+  @Test
+  public void missingFields() {
+    assertThrows(DataException.class, () -> tokenizer("#Version: 1.0\n2019-10-23 1234\n"));
+  }
+}
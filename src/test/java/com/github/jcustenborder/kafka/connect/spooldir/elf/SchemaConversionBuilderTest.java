@@ -31,7 +31,9 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
 import static org.mockito.Mockito.mock;
@@ -107,5 +109,52 @@ public class SchemaConversionBuilderTest {
 
   }
 
+  @Test
+  public void convertRow() {
+    ElfParser parser = mock(ElfParser.class);
+    final Map<String, Class<?>> fieldTypes = ImmutableMap.of(
+        "date", LocalDate.class,
+        "time", LocalTime.class,
+        "sc-bytes", Long.class,
+        "sc-status", Integer.class
+    );
+    when(parser.fieldTypes()).thenReturn(fieldTypes);
 
+    SchemaConversion conversion = new SchemaConversionBuilder(parser).build();
+    assertArrayEquals(
+        new String[]{"date", "time", "sc-bytes", "sc-status"},
+        conversion.logFieldNames(),
+        "logFieldNames() does not match."
+    );
+
+    SchemaAndValue actual = conversion.convert(new Object[]{
+        LocalDate.of(2011, 3, 14),
+        LocalTime.of(12, 0, 0),
+        12341L,
+        200
+    });
+    Struct struct = (Struct) actual.value();
+    assertEquals(12341L, struct.getInt64("sc_bytes"));
+    assertEquals(200, (int) struct.getInt32("sc_status"));
+    assertNotNull(struct.get("datetime"), "datetime should not be null.");
+  }
+
+  @Test
+  public void signature() {
+    final Map<String, Class<?>> fieldTypes = new LinkedHashMap<>();
+    fieldTypes.put("date", LocalDate.class);
+    fieldTypes.put("sc-bytes", Long.class);
+    final Map<String, Class<?>> reordered = new LinkedHashMap<>();
+    reordered.put("sc-bytes", Long.class);
+    reordered.put("date", LocalDate.class);
+
+    assertEquals(
+        SchemaConversionBuilder.signature(fieldTypes),
+        SchemaConversionBuilder.signature(new LinkedHashMap<>(fieldTypes))
+    );
+    assertNotEquals(
+        SchemaConversionBuilder.signature(fieldTypes),
+        SchemaConversionBuilder.signature(reordered)
+    );
+  }
 }
@@ -15,20 +15,29 @@
  */
 package com.github.jcustenborder.kafka.connect.spooldir.elf;
 
+import com.github.jcustenborder.kafka.connect.spooldir.AbstractSourceConnectorConfig;
 import com.github.jcustenborder.kafka.connect.spooldir.AbstractSpoolDirSourceTaskTest;
 import com.github.jcustenborder.kafka.connect.spooldir.TestCase;
+import com.google.common.base.Charsets;
 import com.google.common.io.Files;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.apache.kafka.connect.storage.OffsetStorageReader;
 import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class SpoolDirELFSourceTaskTest extends AbstractSpoolDirSourceTaskTest<SpoolDirELFSourceTask> {
   private static final Logger log = LoggerFactory.getLogger(SpoolDirELFSourceTaskTest.class);
@@ -60,4 +69,44 @@ public class SpoolDirELFSourceTaskTest extends AbstractSpoolDirSourceTaskTest<Sp
       });
     });
   }
-}
\ No newline at end of file
+
+  @Test
+  public void batchSize() throws InterruptedException, IOException {
+    assertBatchSize(false);
+  }
+
+  @Test
+  public void nativeTokenizerBatchSize() throws InterruptedException, IOException {
+    assertBatchSize(true);
+  }
+
+  void assertBatchSize(boolean nativeTokenizer) throws InterruptedException, IOException {
+    StringBuilder builder = new StringBuilder("#Version: 1.0\n#Fields: date time sc-bytes\n");
+    for (int i = 0; i < 5; i++) {
+      builder.append("2019-10-23 21:00:0").append(i).append(' ').append(i).append('\n');
+    }
+    Files.write(builder.toString(), new File(this.inputPath, "input.elf"), Charsets.UTF_8);
+
+    Map<String, String> settings = settings();
+    settings.put(AbstractSourceConnectorConfig.INPUT_FILE_PATTERN_CONF, "^.*\\.elf$");
+    settings.put(SpoolDirELFSourceConnectorConfig.ELF_NATIVE_TOKENIZER_ENABLED_CONF, Boolean.toString(nativeTokenizer));
+    this.task = new SpoolDirELFSourceTask() {
+      @Override
+      protected int batchSize() {
+        return 2;
+      }
+    };
+    SourceTaskContext sourceTaskContext = mock(SourceTaskContext.class);
+    OffsetStorageReader offsetStorageReader = mock(OffsetStorageReader.class);
+    when(sourceTaskContext.offsetStorageReader()).thenReturn(offsetStorageReader);
+    this.task.initialize(sourceTaskContext);
+    this.task.start(settings);
+    try {
+      assertEquals(2, this.task.poll().size());
+      assertEquals(2, this.task.poll().size());
+      assertEquals(1, this.task.poll().size());
+    } finally {
+      this.task.stop();
+    }
+  }
+}